@@ -0,0 +1,65 @@
+package com.example.interviewsimulator.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording an evaluation in the session scoreboard and building the {@code /score}
+ * response after 10, 1k and 10k answers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ScoreboardBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int answers;
+
+    private InterviewScoreboard scoreboard;
+    private GeminiResponse evaluation;
+
+    @Setup
+    public void setUp() {
+        scoreboard = new InterviewScoreboard(10);
+        for (int i = 0; i < answers; i++) {
+            scoreboard.record(new GeminiResponse(i % 11,
+                List.of("Strength " + (i % 25)), List.of("Weakness " + (i % 40)), "feedback"));
+        }
+        evaluation = new GeminiResponse(8, List.of("Clear", "Concise"), List.of("Too short"), "Good");
+    }
+
+    @Benchmark
+    public InterviewScoreboard record() {
+        scoreboard.record(evaluation);
+        return scoreboard;
+    }
+
+    // Same fields as InterviewController#getScore
+    @Benchmark
+    public Map<String, Object> score() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("score", scoreboard.getScoreSum());
+        response.put("strengths", scoreboard.getStrengths());
+        response.put("weaknesses", scoreboard.getWeaknesses());
+        response.put("totalQuestions", scoreboard.getCount());
+        response.put("maxScore", scoreboard.getCount() * 10);
+        return response;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.interviewsimulator.service;
+
+import com.example.interviewsimulator.model.GeminiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing an evaluation returned in JSON mode, and recovering one wrapped in prose and
+ * markdown fences.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EvaluationParserBenchmark {
+
+    private static final String EVALUATION = "{\"score\": 7, \"strengths\": [\"Clear structure\", \"Good examples\"], "
+        + "\"weaknesses\": [\"No mention of trade-offs\"], "
+        + "\"feedback\": \"A solid answer that would be stronger with a discussion of alternatives.\"}";
+
+    private EvaluationParser parser;
+    private String embedded;
+
+    @Setup
+    public void setUp() {
+        parser = new EvaluationParser(new ObjectMapper(), new SimpleMeterRegistry());
+        embedded = "Here is my evaluation of the answer {as requested}:\n```json\n" + EVALUATION
+            + "\n```\nLet me know if you would like more detail.";
+    }
+
+    @Benchmark
+    public GeminiResponse parseJsonMode() {
+        return parser.parse(EVALUATION);
+    }
+
+    @Benchmark
+    public GeminiResponse parseEmbedded() {
+        return parser.parse(embedded);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.interviewsimulator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering the evaluation prompt for a typical answer and for a pasted answer that
+ * has to be escaped and trimmed to the template budget.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PromptBenchmark {
+
+    @Param({"150", "5000"})
+    public int answerWords;
+
+    private PromptTemplates templates;
+    private Map<String, Object> values;
+
+    @Setup
+    public void setUp() {
+        templates = new PromptTemplates("classpath:prompts/", new SimpleMeterRegistry());
+        values = Map.of(
+            "role", "backend developer",
+            "question", "How would you design a rate limiter for a public REST API?",
+            "answer", "I would use a <token> bucket per client & key. ".repeat(answerWords / 10));
+    }
+
+    @Benchmark
+    public String renderEvaluation() {
+        return templates.render("evaluation", values);
+    }
+
+    @Benchmark
+    public String renderStartInterview() {
+        return templates.render("start-interview", Map.of("role", "backend developer"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.interviewsimulator.service;
+
+import com.example.interviewsimulator.model.UserStats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Topic classification and the stats update for one answer. {@code recordAnswer} is the
+ * incremental update used on every answer; {@code recomputeFromHistory} is the full
+ * recompute over a user's embedded history, kept for comparison at 10, 1k and 10k
+ * records. {@code skillLevels} derives the dashboard view from the aggregates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class UserStatsBenchmark {
+
+    private static final long HALF_LIFE_MILLIS = TimeUnit.DAYS.toMillis(14);
+    private static final long EPOCH = UserStats.TopicStats.recencyEpoch(System.currentTimeMillis(), HALF_LIFE_MILLIS);
+
+    private static final String[] QUESTIONS = {
+        "Explain how CSS grid differs from flexbox",
+        "What is a closure in JavaScript?",
+        "How does React decide when to re-render a component?",
+        "What is the time complexity of merge sort?",
+        "Tell me about a time you disagreed with your manager",
+    };
+
+    @Param({"10", "1000", "10000"})
+    public int historySize;
+
+    private TopicClassifier topics;
+    private List<UserStats.InterviewRecord> history;
+    private UserStats.InterviewRecord latest;
+    private UserStats stats;
+
+    @Setup
+    public void setUp() {
+        topics = new TopicClassifier("classpath:topics.json");
+        history = new ArrayList<>(historySize);
+        for (int i = 0; i < historySize; i++) {
+            history.add(record(QUESTIONS[i % QUESTIONS.length], i % 11, EPOCH + i * 3_600_000L));
+        }
+        latest = history.get(history.size() - 1);
+
+        stats = new UserStats();
+        stats.setInterviewCount(historySize);
+        Map<String, UserStats.TopicStats> topicStats = new HashMap<>();
+        for (UserStats.InterviewRecord record : history) {
+            topicStats.computeIfAbsent(topics.primaryTopic(record.getQuestion()), t -> new UserStats.TopicStats())
+                .record(record.getScore(), record.getTimestamp(), EPOCH, HALF_LIFE_MILLIS);
+        }
+        stats.setTopicStats(topicStats);
+    }
+
+    @Benchmark
+    public String classifyTopic() {
+        return topics.primaryTopic(latest.getQuestion());
+    }
+
+    @Benchmark
+    public Update recordAnswer() {
+        return UserStatsService.interviewUpdate(latest, topics.primaryTopic(latest.getQuestion()), 20, HALF_LIFE_MILLIS, EPOCH);
+    }
+
+    @Benchmark
+    public Update recomputeFromHistory() {
+        return UserStatsService.aggregateUpdate(history, topics, HALF_LIFE_MILLIS, EPOCH);
+    }
+
+    @Benchmark
+    public Map<String, Integer> skillLevels() {
+        return stats.getSkillLevels();
+    }
+
+    private static UserStats.InterviewRecord record(String question, int score, long timestamp) {
+        UserStats.InterviewRecord record = new UserStats.InterviewRecord();
+        record.setQuestion(question);
+        record.setScore(score);
+        record.setTimestamp(timestamp);
+        return record;
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.interviewsimulator.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the Gemini {@code generateContent} and {@code streamGenerateContent}
+ * endpoints. Latency is log-normal with the configured median and p99, a configurable
+ * share of calls fail with 503, and streamed responses are split into SSE chunks.
+ * Evaluations (JSON mode) get a random evaluation, or an array of them tagged with
+ * the answer ids for batch evaluations; question batches get one question per line,
+ * anything else a single question.
+ */
+public class FakeGeminiServer implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Pattern BATCH_SIZE = Pattern.compile("Write (\\d+) different interview questions");
+    private static final Pattern ANSWER_ID = Pattern.compile("<answer id=\"(\\d+)\">");
+
+    // z-score of the 99th percentile of a standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    private static final String[] QUESTIONS = {
+        "How would you design a rate limiter for a public REST API?",
+        "Tell me about a time you had to push back on a deadline.",
+        "What happens between typing a URL in the browser and the page rendering?",
+        "How do you decide between a relational and a document database?",
+        "Describe a production incident you handled and what you changed afterwards.",
+        "How would you find the slowest endpoint in a service you have never seen?",
+        "Explain closures in JavaScript with an example.",
+        "How do you keep a React component from re-rendering unnecessarily?",
+        "What is the time complexity of building a heap from an unsorted array?",
+        "How would you roll out a breaking API change to mobile clients?"
+    };
+
+    private static final String[] TRAITS = {
+        "clear structure", "concrete example", "mentions trade-offs", "considers failure modes",
+        "too vague", "no metrics", "skips edge cases", "good use of terminology"
+    };
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final double medianMillis;
+    private final double sigma;
+    private final double errorRate;
+    private final int streamChunks;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public FakeGeminiServer(int port, long medianMillis, long p99Millis, double errorRate, int streamChunks)
+            throws IOException {
+        if (p99Millis < medianMillis) {
+            throw new IllegalArgumentException("p99 latency must not be below the median");
+        }
+        this.medianMillis = medianMillis;
+        this.sigma = medianMillis == 0 ? 0 : Math.log((double) p99Millis / medianMillis) / Z_99;
+        this.errorRate = errorRate;
+        this.streamChunks = Math.max(1, streamChunks);
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        // Each call mostly sleeps, so one thread per in-flight call is fine here
+        this.executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long getCalls() {
+        return calls.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            boolean streaming = path.endsWith(":streamGenerateContent");
+            if (!"POST".equals(exchange.getRequestMethod())
+                    || !(streaming || path.endsWith(":generateContent"))) {
+                send(exchange, 404, "application/json", error(404, "NOT_FOUND", "Unknown endpoint " + path));
+                return;
+            }
+            JsonNode request = MAPPER.readTree(exchange.getRequestBody());
+            calls.incrementAndGet();
+
+            long latency = sampleLatencyMillis();
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                sleep(latency);
+                failures.incrementAndGet();
+                send(exchange, 503, "application/json", error(503, "UNAVAILABLE", "The model is overloaded"));
+                return;
+            }
+
+            String prompt = request.at("/contents/0/parts/0/text").asText("");
+            boolean json = "application/json".equals(request.at("/generationConfig/responseMimeType").asText());
+            String text = json ? evaluations(prompt) : questions(prompt);
+            int promptTokens = prompt.length() / 4;
+
+            if (!streaming) {
+                sleep(latency);
+                send(exchange, 200, "application/json", response(text, promptTokens, true));
+                return;
+            }
+            // First chunk after half the latency, the rest spread over the other half
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            List<String> chunks = split(text, streamChunks);
+            sleep(latency / 2);
+            for (int i = 0; i < chunks.size(); i++) {
+                if (i > 0) {
+                    sleep(latency / 2 / chunks.size());
+                }
+                boolean last = i == chunks.size() - 1;
+                out.write(("data: " + response(chunks.get(i), promptTokens, last) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+        }
+    }
+
+    private long sampleLatencyMillis() {
+        double z = ThreadLocalRandom.current().nextGaussian();
+        return Math.round(medianMillis * Math.exp(sigma * z));
+    }
+
+    private static String questions(String prompt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Matcher batch = BATCH_SIZE.matcher(prompt);
+        if (!batch.find()) {
+            return QUESTIONS[random.nextInt(QUESTIONS.length)];
+        }
+        int count = Integer.parseInt(batch.group(1));
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            // Suffix keeps pooled questions distinct, like a real batch would be
+            lines.append(QUESTIONS[random.nextInt(QUESTIONS.length)])
+                .append(" (variant ").append(random.nextInt(1_000_000)).append(")\n");
+        }
+        return lines.toString();
+    }
+
+    private static String evaluations(String prompt) throws IOException {
+        Matcher ids = ANSWER_ID.matcher(prompt);
+        if (!ids.find()) {
+            return MAPPER.writeValueAsString(evaluation());
+        }
+        List<Map<String, Object>> batch = new ArrayList<>();
+        do {
+            Map<String, Object> evaluation = new LinkedHashMap<>(evaluation());
+            evaluation.put("id", Integer.parseInt(ids.group(1)));
+            batch.add(evaluation);
+        } while (ids.find());
+        return MAPPER.writeValueAsString(batch);
+    }
+
+    private static Map<String, Object> evaluation() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Map.of(
+            "score", random.nextInt(3, 11),
+            "strengths", List.of(TRAITS[random.nextInt(4)], TRAITS[random.nextInt(4)]),
+            "weaknesses", List.of(TRAITS[4 + random.nextInt(4)]),
+            "feedback", "Solid answer overall; tie it back to a concrete project and quantify the impact.");
+    }
+
+    private static String response(String text, int promptTokens, boolean withUsage) throws IOException {
+        Map<String, Object> candidate = Map.of(
+            "content", Map.of("role", "model", "parts", List.of(Map.of("text", text))),
+            "finishReason", "STOP",
+            "index", 0);
+        if (!withUsage) {
+            return MAPPER.writeValueAsString(Map.of("candidates", List.of(candidate)));
+        }
+        int outputTokens = text.length() / 4;
+        return MAPPER.writeValueAsString(Map.of(
+            "candidates", List.of(candidate),
+            "usageMetadata", Map.of(
+                "promptTokenCount", promptTokens,
+                "candidatesTokenCount", outputTokens,
+                "totalTokenCount", promptTokens + outputTokens),
+            "modelVersion", "fake-gemini"));
+    }
+
+    private static String error(int code, String status, String message) throws IOException {
+        return MAPPER.writeValueAsString(Map.of("error", Map.of("code", code, "status", status, "message", message)));
+    }
+
+    private static List<String> split(String text, int parts) {
+        List<String> chunks = new ArrayList<>();
+        int size = Math.max(1, (text.length() + parts - 1) / parts);
+        for (int from = 0; from < text.length(); from += size) {
+            chunks.add(text.substring(from, Math.min(from + size, text.length())));
+        }
+        if (chunks.isEmpty()) {
+            chunks.add("");
+        }
+        return chunks;
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
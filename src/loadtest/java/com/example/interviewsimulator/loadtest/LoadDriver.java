@@ -0,0 +1,295 @@
+package com.example.interviewsimulator.loadtest;
+
+import com.example.interviewsimulator.service.InterviewStateCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load driver: each virtual user replays interview sessions
+ * (start, N x (submit answer, next question), score) back to back until the run ends.
+ * Requests that start during the warm-up are not recorded. Sessions follow the
+ * session cookie, and the {@code X-Interview-State} token when the server is stateless.
+ */
+public class LoadDriver {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String[] ROLES = {
+        "software engineer", "backend developer", "frontend developer", "data scientist", "devops engineer"
+    };
+
+    private static final String[] SENTENCES = {
+        "In my last project I owned the payment service and its on-call rotation.",
+        "I would start by measuring where the time actually goes before changing anything.",
+        "The trade-off is consistency against latency, and here latency matters more.",
+        "We added a cache in front of the database and cut p99 latency by half.",
+        "I disagreed with the deadline, explained the risk, and we agreed on a smaller scope.",
+        "A queue decouples the producer from the consumer so spikes do not take the API down.",
+        "I would write a failing test first so the regression cannot come back.",
+        "Closures capture variables from the enclosing scope, not their values at creation time.",
+        "We rolled it out behind a feature flag to five percent of traffic first.",
+        "The root cause was a missing index, which only showed up at production data volumes."
+    };
+
+    private final HttpClient http = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private final String baseUrl;
+    private final int users;
+    private final Duration duration;
+    private final Duration warmup;
+    private final int questionsPerSession;
+    private final Duration thinkTime;
+    private final double streamRatio;
+
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final AtomicLong sessionsCompleted = new AtomicLong();
+    private final AtomicLong sessionsAborted = new AtomicLong();
+    private volatile long recordFromNanos;
+
+    public LoadDriver(String baseUrl, int users, Duration duration, Duration warmup,
+                      int questionsPerSession, Duration thinkTime, double streamRatio) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.users = users;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.questionsPerSession = questionsPerSession;
+        this.thinkTime = thinkTime;
+        this.streamRatio = streamRatio;
+    }
+
+    /** Runs the load for warm-up plus duration and returns once every user has stopped. */
+    public void run() throws InterruptedException {
+        long start = System.nanoTime();
+        recordFromNanos = start + warmup.toNanos();
+        long deadline = recordFromNanos + duration.toNanos();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            String email = "loadtest-user-" + i + "@example.com";
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    runSession(email);
+                }
+            }, "load-user-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private void runSession(String email) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Session session = new Session(email, ROLES[random.nextInt(ROLES.length)],
+            random.nextDouble() < streamRatio);
+        try {
+            String question = session.streaming
+                ? session.startStream()
+                : session.call("startInterview", get("/startInterview?role=" + encode(session.role))).orElse(null);
+            if (question == null) {
+                sessionsAborted.incrementAndGet();
+                return;
+            }
+            for (int i = 0; i < questionsPerSession; i++) {
+                think();
+                String body = MAPPER.writeValueAsString(Map.of(
+                    "role", session.role, "question", question, "answer", answer()));
+                if (session.streaming) {
+                    session.call("submitAnswer/stream", post("/submitAnswer/stream", body));
+                } else {
+                    session.call("submitAnswer", post("/submitAnswer", body));
+                }
+                Optional<String> next = session.call("nextQuestion",
+                    get("/nextQuestion?role=" + encode(session.role) + "&questionIndex=" + i));
+                question = next.orElse(question);
+            }
+            session.call("score", get("/score"));
+            sessionsCompleted.incrementAndGet();
+        } catch (IOException e) {
+            sessionsAborted.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void think() throws InterruptedException {
+        if (!thinkTime.isZero()) {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(thinkTime.toMillis() / 2, thinkTime.toMillis() * 3 / 2 + 1));
+        }
+    }
+
+    // 40 to 250 words, the range of typed answers
+    private static String answer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int sentences = random.nextInt(3, 18);
+        StringBuilder answer = new StringBuilder();
+        for (int i = 0; i < sentences; i++) {
+            answer.append(SENTENCES[random.nextInt(SENTENCES.length)]).append(' ');
+        }
+        return answer.toString().trim();
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/interview" + path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/interview" + path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /** Prints one line per endpoint: requests, errors, throughput and latency percentiles. */
+    public void report(PrintStream out) {
+        double seconds = duration.toNanos() / 1e9;
+        out.printf("%nSessions completed: %d, aborted: %d, users: %d, measured: %.0fs%n",
+            sessionsCompleted.get(), sessionsAborted.get(), users, seconds);
+        out.printf("%-22s %9s %7s %9s %9s %9s %9s %9s%n",
+            "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        new TreeMap<>(recorders).forEach((endpoint, recorder) -> {
+            long[] latencies = recorder.sorted();
+            out.printf("%-22s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                endpoint, latencies.length, recorder.errors.get(), latencies.length / seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.95),
+                percentile(latencies, 0.99), percentile(latencies, 1.0));
+        });
+    }
+
+    // Nearest-rank percentile in milliseconds
+    private static double percentile(long[] sortedNanos, double p) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p * sortedNanos.length);
+        return sortedNanos[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    /** Latencies of one endpoint, appended from many user threads. */
+    private static class Recorder {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void add(long nanos) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    /** Cookie and state token of one interview, carried from request to request. */
+    private class Session {
+
+        private final String email;
+        private final String role;
+        private final boolean streaming;
+        private String cookie;
+        private String stateToken;
+
+        Session(String email, String role, boolean streaming) {
+            this.email = email;
+            this.role = role;
+            this.streaming = streaming;
+        }
+
+        /** Sends the request and returns the body on 2xx; failures are counted, not thrown. */
+        Optional<String> call(String endpoint, HttpRequest.Builder request) throws IOException, InterruptedException {
+            request.header(LoadTestSecurityConfig.USER_HEADER, email)
+                .timeout(Duration.ofSeconds(90));
+            if (cookie != null) {
+                request.header("Cookie", cookie);
+            }
+            if (stateToken != null) {
+                request.header(InterviewStateCodec.HEADER, stateToken);
+            }
+
+            long started = System.nanoTime();
+            HttpResponse<String> response;
+            try {
+                response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                record(endpoint, started, false);
+                return Optional.empty();
+            }
+            boolean ok = response.statusCode() < 400 && !response.body().contains("event:error");
+            record(endpoint, started, ok);
+
+            // The session cookie is marked Secure, so it is carried by hand over plain http
+            response.headers().firstValue("Set-Cookie")
+                .filter(c -> c.startsWith("JSESSIONID="))
+                .ifPresent(c -> cookie = c.substring(0, c.indexOf(';') < 0 ? c.length() : c.indexOf(';')));
+            response.headers().firstValue(InterviewStateCodec.HEADER).ifPresent(t -> stateToken = t);
+            String stateEvent = sseData(response.body(), "state");
+            if (stateEvent != null) {
+                stateToken = stateEvent;
+            }
+            return ok ? Optional.of(response.body()) : Optional.empty();
+        }
+
+        String startStream() throws IOException, InterruptedException {
+            return call("startInterview/stream", get("/startInterview/stream?role=" + encode(role)))
+                .map(body -> sseData(body, "done"))
+                .orElse(null);
+        }
+
+        private void record(String endpoint, long started, boolean ok) {
+            if (started < recordFromNanos) {
+                return;
+            }
+            Recorder recorder = recorders.computeIfAbsent(endpoint, e -> new Recorder());
+            recorder.add(System.nanoTime() - started);
+            if (!ok) {
+                recorder.errors.incrementAndGet();
+            }
+        }
+    }
+
+    // Data of the last SSE event with the given name, or null
+    private static String sseData(String body, String event) {
+        String marker = "event:" + event + "\n";
+        int at = body.lastIndexOf(marker);
+        if (at < 0) {
+            return null;
+        }
+        int dataStart = body.indexOf("data:", at);
+        if (dataStart < 0) {
+            return null;
+        }
+        int end = body.indexOf('\n', dataStart);
+        return body.substring(dataStart + "data:".length(), end < 0 ? body.length() : end);
+    }
+}
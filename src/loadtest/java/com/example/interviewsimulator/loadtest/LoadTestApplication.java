@@ -0,0 +1,116 @@
+package com.example.interviewsimulator.loadtest;
+
+import com.example.interviewsimulator.InterviewSimulatorApplication;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.InetSocketAddress;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offline end-to-end load test. Starts an in-memory Mongo wire-protocol server, a
+ * {@link FakeGeminiServer} and the application with the {@code loadtest} profile, then
+ * runs a {@link LoadDriver} against it and prints per-endpoint throughput and latency.
+ * With {@code --target=http://host:port} only the driver runs, against an application
+ * started elsewhere.
+ *
+ * <p>Options ({@code --name=value}): users (20), duration (60s), warmup (10s),
+ * questions (5 per session), think-time (0ms), stream-ratio (0), stateless (false),
+ * gemini-median (800ms), gemini-p99 (3000ms), error-rate (0.01), stream-chunks (8).
+ */
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+
+        LoadDriver driver;
+        String target = options.get("target");
+        if (target != null) {
+            driver = driver(target, options);
+            driver.run();
+            driver.report(System.out);
+            return;
+        }
+
+        // DevTools would restart the application in a new class loader and run main again
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        MongoServer mongo = new MongoServer(new MemoryBackend());
+        InetSocketAddress mongoAddress = mongo.bind();
+        FakeGeminiServer gemini = new FakeGeminiServer(0,
+            duration(options.getOrDefault("gemini-median", "800ms")).toMillis(),
+            duration(options.getOrDefault("gemini-p99", "3000ms")).toMillis(),
+            Double.parseDouble(options.getOrDefault("error-rate", "0.01")),
+            Integer.parseInt(options.getOrDefault("stream-chunks", "8")));
+        gemini.start();
+
+        List<String> properties = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--spring.data.mongodb.uri=mongodb://127.0.0.1:" + mongoAddress.getPort() + "/interviewDB",
+            "--gemini.api.base-url=" + gemini.baseUrl()));
+        if (Boolean.parseBoolean(options.getOrDefault("stateless", "false"))) {
+            byte[] secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            properties.add("--app.interview.stateless.enabled=true");
+            properties.add("--app.interview.stateless.secret=" + Base64.getEncoder().encodeToString(secret));
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InterviewSimulatorApplication.class)
+                .profiles("loadtest")
+                .run(properties.toArray(String[]::new))) {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            driver = driver("http://127.0.0.1:" + port, options);
+            driver.run();
+            driver.report(System.out);
+            System.out.printf("Fake Gemini calls: %d, injected failures: %d%n", gemini.getCalls(), gemini.getFailures());
+        } finally {
+            gemini.close();
+            mongo.shutdown();
+        }
+    }
+
+    private static LoadDriver driver(String baseUrl, Map<String, String> options) {
+        return new LoadDriver(baseUrl,
+            Integer.parseInt(options.getOrDefault("users", "20")),
+            duration(options.getOrDefault("duration", "60s")),
+            duration(options.getOrDefault("warmup", "10s")),
+            Integer.parseInt(options.getOrDefault("questions", "5")),
+            duration(options.getOrDefault("think-time", "0ms")),
+            Double.parseDouble(options.getOrDefault("stream-ratio", "0")));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    // 250ms, 30s or 2m
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        switch (value.charAt(value.length() - 1)) {
+            case 's':
+                return Duration.ofSeconds(amount);
+            case 'm':
+                return Duration.ofMinutes(amount);
+            default:
+                throw new IllegalArgumentException("Unsupported duration " + value);
+        }
+    }
+}
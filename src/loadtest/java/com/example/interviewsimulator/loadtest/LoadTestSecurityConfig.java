@@ -0,0 +1,55 @@
+package com.example.interviewsimulator.loadtest;
+
+import com.example.interviewsimulator.model.User;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Replaces the Google login for load tests: every request is permitted, and a
+ * {@value #USER_HEADER} header puts that user in the session the way
+ * {@code OAuth2LoginSuccessHandler} does, so answers are attributed and projected
+ * into user stats as in production.
+ */
+@Configuration
+@Profile("loadtest")
+public class LoadTestSecurityConfig {
+
+    public static final String USER_HEADER = "X-Loadtest-User";
+
+    @Bean
+    public SecurityFilterChain loadTestFilterChain(HttpSecurity http) throws Exception {
+        http
+            .csrf(csrf -> csrf.disable())
+            .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+            .addFilterAfter(new LoadTestUserFilter(), SecurityContextHolderFilter.class);
+        return http.build();
+    }
+
+    static class LoadTestUserFilter extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            String email = request.getHeader(USER_HEADER);
+            if (email != null && !email.isBlank()) {
+                HttpSession session = request.getSession();
+                if (session.getAttribute("user") == null) {
+                    session.setAttribute("user", new User(email, "Load Test User"));
+                }
+            }
+            chain.doFilter(request, response);
+        }
+    }
+}
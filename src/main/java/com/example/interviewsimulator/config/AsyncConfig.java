@@ -0,0 +1,82 @@
+package com.example.interviewsimulator.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executor used for outbound Gemini calls so that servlet threads are released
+ * while the model is generating. The pool and its queue are bounded: once both
+ * are full, new submissions are rejected and surface as a 503 instead of
+ * piling up unbounded work. Scheduling is enabled here as well for the background
+ * question pool refill.
+ *
+ * <p>{@code statsProjectionExecutor} is a single thread so user stats projections are
+ * applied in the order responses were persisted.
+ *
+ * <p>{@code evaluationCacheExecutor} runs the Mongo tier of evaluation cache lookups
+ * off the servlet thread. It is bounded too; a rejected lookup counts as a miss.
+ */
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    @Value("${gemini.executor.max-concurrency:64}")
+    private int maxConcurrency;
+
+    @Value("${gemini.executor.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${app.stats.projection.queue-capacity:10000}")
+    private int projectionQueueCapacity;
+
+    @Value("${app.evaluation.cache.lookup-threads:8}")
+    private int cacheLookupThreads;
+
+    @Value("${app.evaluation.cache.lookup-queue-capacity:1000}")
+    private int cacheLookupQueueCapacity;
+
+    @Bean(name = "geminiExecutor")
+    public ThreadPoolTaskExecutor geminiExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("gemini-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    @Bean(name = "statsProjectionExecutor")
+    public ThreadPoolTaskExecutor statsProjectionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(projectionQueueCapacity);
+        executor.setThreadNamePrefix("stats-projection-");
+        // Never drop a projection: if the queue is full the flushing thread applies it
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // The response writer drains after context close and still hands off batches
+        executor.setAcceptTasksAfterContextClose(true);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    @Bean(name = "evaluationCacheExecutor")
+    public ThreadPoolTaskExecutor evaluationCacheExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cacheLookupThreads);
+        executor.setMaxPoolSize(cacheLookupThreads);
+        executor.setQueueCapacity(cacheLookupQueueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("evaluation-cache-");
+        return executor;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.interviewsimulator.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caffeine-backed caches. Each cache gets its own size/expiry spec and records
+ * statistics so hit/miss counts are published through Actuator's cache metrics.
+ * The manager runs in async mode so {@code @Cacheable} also works on methods that
+ * return {@code CompletableFuture}.
+ */
+@Configuration
+@EnableCaching
+@ConditionalOnProperty(name = "app.caching.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheConfig {
+
+    public static final String QUESTIONS = "questions";
+    public static final String USER_STATS = "user-stats";
+    public static final String FEEDBACK = "feedback";
+
+    @Value("${spring.cache.caffeine.spec:maximumSize=1000,expireAfterWrite=1h}")
+    private String questionsSpec;
+
+    @Value("${app.caching.user-stats.spec:maximumSize=10000,expireAfterWrite=10m}")
+    private String userStatsSpec;
+
+    @Value("${app.caching.feedback.spec:maximumSize=10000,expireAfterWrite=30m}")
+    private String feedbackSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAsyncCacheMode(true);
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(QUESTIONS, Caffeine.from(questionsSpec).recordStats().buildAsync());
+        cacheManager.registerCustomCache(USER_STATS, Caffeine.from(userStatsSpec).recordStats().buildAsync());
+        cacheManager.registerCustomCache(FEEDBACK, Caffeine.from(feedbackSpec).recordStats().buildAsync());
+        return cacheManager;
+    }
+}
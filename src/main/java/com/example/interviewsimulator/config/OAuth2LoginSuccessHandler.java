@@ -2,6 +2,8 @@ package com.example.interviewsimulator.config;
 
 import com.example.interviewsimulator.model.LoginInfo;
 import com.example.interviewsimulator.repository.LoginInfoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
@@ -15,6 +17,8 @@ import java.time.LocalDateTime;
 @Component
 public class OAuth2LoginSuccessHandler implements AuthenticationSuccessHandler {
 
+    private static final Logger logger = LoggerFactory.getLogger(OAuth2LoginSuccessHandler.class);
+
     private final LoginInfoRepository loginInfoRepository;
 
     public OAuth2LoginSuccessHandler(LoginInfoRepository loginInfoRepository) {
@@ -30,8 +34,7 @@ public class OAuth2LoginSuccessHandler implements AuthenticationSuccessHandler {
         String name = user.getAttribute("name");
         String email = user.getAttribute("email");
         
-    System.out.println("OAuth Email: " + email); // ✅ Print to verify
-    System.out.println("OAuth Name: " + name);
+    logger.debug("OAuth login for {}", email);
 
         LoginInfo loginInfo = new LoginInfo(name, email, LocalDateTime.now());
         loginInfoRepository.save(loginInfo);
@@ -0,0 +1,50 @@
+package com.example.interviewsimulator.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Registers {@link RateLimitFilter} for the configured URL patterns. They are
+ * Ant-style, so unlike servlet URL patterns they can have a wildcard mid-path. The
+ * filter runs after Spring Security so the session already identifies the user.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.rate-limiting.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Value("${app.rate-limit.requests-per-minute:60}")
+    private long requestsPerMinute;
+
+    @Value("${app.rate-limit.requests-per-hour:1000}")
+    private long requestsPerHour;
+
+    @Value("${app.rate-limit.burst-capacity:10}")
+    private long burstCapacity;
+
+    @Value("${app.rate-limit.idle-eviction-minutes:15}")
+    private long idleEvictionMinutes;
+
+    @Value("${app.rate-limit.max-tracked-clients:100000}")
+    private long maxTrackedClients;
+
+    @Value("${app.rate-limit.url-patterns:/api/interview/**,/api/user/*/responses/regrade}")
+    private List<String> urlPatterns;
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(MeterRegistry meterRegistry) {
+        RateLimitFilter filter = new RateLimitFilter(requestsPerMinute, requestsPerHour, burstCapacity,
+                Duration.ofMinutes(idleEvictionMinutes), maxTrackedClients, urlPatterns, meterRegistry);
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        // Servlet URL patterns cannot put a wildcard mid-path, so the filter matches them itself
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(0);
+        return registration;
+    }
+}
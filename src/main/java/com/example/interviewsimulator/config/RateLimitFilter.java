@@ -0,0 +1,129 @@
+package com.example.interviewsimulator.config;
+
+import com.example.interviewsimulator.model.User;
+import com.example.interviewsimulator.util.TokenBucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client rate limiting for the Gemini-backed endpoints. Each client, keyed by the
+ * logged-in user's email or otherwise the remote address, gets a per-minute bucket
+ * sized by the burst capacity and a per-hour bucket. Idle clients are evicted so
+ * memory only grows with the number of active clients. Requests over the limit get a
+ * 429 with a Retry-After header. Only paths matching one of the Ant-style
+ * {@code urlPatterns} are limited.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final long requestsPerMinute;
+    private final long requestsPerHour;
+    private final long burstCapacity;
+    private final List<String> urlPatterns;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final Cache<String, ClientLimits> limits;
+    private final Counter rejectedCounter;
+
+    private final class ClientLimits {
+        final TokenBucket perMinute;
+        final TokenBucket perHour;
+
+        ClientLimits(long now) {
+            perMinute = new TokenBucket(burstCapacity, requestsPerMinute, 1, TimeUnit.MINUTES, now);
+            perHour = new TokenBucket(requestsPerHour, requestsPerHour, 1, TimeUnit.HOURS, now);
+        }
+
+        long tryAcquire(long now) {
+            long wait = perMinute.tryConsume(now);
+            if (wait > 0) {
+                return wait;
+            }
+            wait = perHour.tryConsume(now);
+            if (wait > 0) {
+                perMinute.refund();
+            }
+            return wait;
+        }
+    }
+
+    public RateLimitFilter(long requestsPerMinute, long requestsPerHour, long burstCapacity,
+                           Duration idleEviction, long maxTrackedClients, List<String> urlPatterns,
+                           MeterRegistry meterRegistry) {
+        this.requestsPerMinute = requestsPerMinute;
+        this.requestsPerHour = requestsPerHour;
+        this.burstCapacity = burstCapacity;
+        this.urlPatterns = List.copyOf(urlPatterns);
+        this.limits = Caffeine.newBuilder()
+                .expireAfterAccess(idleEviction)
+                .maximumSize(maxTrackedClients)
+                .build();
+        this.rejectedCounter = meterRegistry.counter("ratelimit.rejected");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : urlPatterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if ("OPTIONS".equals(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long now = System.nanoTime();
+        long waitNanos = limits.get(clientKey(request), key -> new ClientLimits(now)).tryAcquire(now);
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rejectedCounter.increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":429,\"message\":\"Too many requests\",\"retryAfterSeconds\":"
+                + retryAfterSeconds + "}");
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            Object user = session.getAttribute("user");
+            if (user instanceof User && ((User) user).getEmail() != null) {
+                return "user:" + ((User) user).getEmail();
+            }
+            Object email = session.getAttribute("email");
+            if (email instanceof String) {
+                return "user:" + email;
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
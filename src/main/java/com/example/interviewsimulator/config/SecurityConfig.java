@@ -3,6 +3,7 @@ package com.example.interviewsimulator.config;
 import com.example.interviewsimulator.config.OAuth2LoginSuccessHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -10,8 +11,14 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 
 import java.util.Arrays;
+import java.util.List;
 
 import org.springframework.boot.web.servlet.server.CookieSameSiteSupplier;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
@@ -19,11 +26,15 @@ import jakarta.servlet.SessionCookieConfig;
 
 @Configuration
 @EnableWebSecurity
+@Profile("!loadtest") // the load-test harness brings its own permit-all chain
 public class SecurityConfig {
 
     @Autowired
     private OAuth2LoginSuccessHandler successHandler; // ✅ Inject custom success handler
 
+    @Value("${app.metrics.allowed-networks:127.0.0.1/32,::1/128}")
+    private List<String> metricsAllowedNetworks;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -32,6 +43,9 @@ public class SecurityConfig {
             .csrf().disable()
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/", "/login.html", "/oauth2/**", "/css/**", "/js/**", "/assets/**", "/redirect-after-login").permitAll()
+                // Health checks are open; Prometheus only to the scraper networks; other actuator endpoints stay authenticated
+                .requestMatchers("/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/prometheus").access(fromMetricsNetworks())
                 .requestMatchers("/api/**").authenticated()
                 .anyRequest().authenticated()
             )
@@ -56,6 +70,13 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // Matches the remote address, so behind a proxy list the proxy's address or scrape the pod directly
+    private AuthorizationManager<RequestAuthorizationContext> fromMetricsNetworks() {
+        List<IpAddressMatcher> networks = metricsAllowedNetworks.stream().map(IpAddressMatcher::new).toList();
+        return (authentication, context) -> new AuthorizationDecision(
+            networks.stream().anyMatch(network -> network.matches(context.getRequest())));
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration config = new CorsConfiguration();
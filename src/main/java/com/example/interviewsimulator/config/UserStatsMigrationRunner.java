@@ -0,0 +1,45 @@
+package com.example.interviewsimulator.config;
+
+import com.example.interviewsimulator.service.UserStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Brings {@code user_stats} documents written by older versions up to the current
+ * layout at startup. Each step only selects documents that still need it, so running
+ * it repeatedly is harmless.
+ */
+@Component
+@ConditionalOnProperty(name = "app.stats.migrations.enabled", havingValue = "true", matchIfMissing = true)
+public class UserStatsMigrationRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStatsMigrationRunner.class);
+
+    private final UserStatsService userStatsService;
+
+    public UserStatsMigrationRunner(UserStatsService userStatsService) {
+        this.userStatsService = userStatsService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            // Migrates the history of each document it backfills, and reads it from the buckets
+            int backfilled = userStatsService.backfillAggregates();
+            if (backfilled > 0) {
+                logger.info("Backfilled running aggregates for {} user_stats documents", backfilled);
+            }
+            int bucketed = userStatsService.migrateHistoryToBuckets();
+            if (bucketed > 0) {
+                logger.info("Moved embedded history into interview_history for {} user_stats documents", bucketed);
+            }
+        } catch (Exception e) {
+            // Never block startup on a migration; it is retried on the next start
+            logger.error("user_stats migration failed", e);
+        }
+    }
+}
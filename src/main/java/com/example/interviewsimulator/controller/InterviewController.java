@@ -1,15 +1,25 @@
 package com.example.interviewsimulator.controller;
 
 import com.example.interviewsimulator.model.AnswerRequest;
+import com.example.interviewsimulator.model.BatchEvaluationRequest;
 import com.example.interviewsimulator.model.QuestionRequest;
 import com.example.interviewsimulator.model.UserStats;
+import com.example.interviewsimulator.service.BatchEvaluationService;
+import com.example.interviewsimulator.service.EvaluationCache;
+import com.example.interviewsimulator.service.EvaluationParseException;
+import com.example.interviewsimulator.service.EvaluationParser;
 import com.example.interviewsimulator.service.GeminiService;
+import com.example.interviewsimulator.service.InterviewResponseWriter;
+import com.example.interviewsimulator.service.InterviewStateCodec;
+import com.example.interviewsimulator.service.PromptTemplates;
+import com.example.interviewsimulator.service.GeminiUnavailableException;
+import com.example.interviewsimulator.service.QuestionPoolService;
 import com.example.interviewsimulator.service.UserStatsService;
 import com.example.interviewsimulator.model.GeminiResponse;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.example.interviewsimulator.repository.InterviewResponseRepository;
 import com.example.interviewsimulator.model.InterviewResponse;
+import com.example.interviewsimulator.model.InterviewScoreboard;
+import com.example.interviewsimulator.model.InterviewState;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -21,30 +31,42 @@ import java.nio.charset.StandardCharsets;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.Map;
 import java.util.List;
-import java.util.ArrayList;
-import java.util.Set;
-import java.util.HashSet;
+import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.util.WebUtils;
 
 @CrossOrigin(origins = {
     "https://atharvpandey13-2006.github.io", 
     "http://127.0.0.1:5501",
     "http://localhost:3000",
     "https://golden-swan-a56b79.netlify.app"
-}, allowCredentials = "true")
+}, allowCredentials = "true", exposedHeaders = InterviewStateCodec.HEADER)
 @RestController
 @RequestMapping("/api/interview")
 public class InterviewController {
+
+    private static final Logger logger = LoggerFactory.getLogger(InterviewController.class);
+
+    static final String SCOREBOARD_ATTRIBUTE = "scoreboard";
+
     @Autowired
-    private InterviewResponseRepository interviewResponseRepository;
+    private InterviewResponseWriter interviewResponseWriter;
 
 
     @Autowired
@@ -53,76 +75,244 @@ public class InterviewController {
     @Autowired
     private GeminiService geminiService;
 
+    @Autowired
+    private QuestionPoolService questionPoolService;
+
+    @Autowired
+    private InterviewStateCodec stateCodec;
+
+    @Autowired
+    private EvaluationParser evaluationParser;
+
+    @Autowired
+    private PromptTemplates promptTemplates;
+
+    @Autowired
+    private BatchEvaluationService batchEvaluationService;
+
+    @Autowired
+    private EvaluationCache evaluationCache;
+
+    @Value("${spring.mvc.async.request-timeout:60000}")
+    private long sseTimeoutMs;
+
+    @Value("${app.interview.scoreboard.max-traits:10}")
+    private int scoreboardMaxTraits;
+
     
 
+    // Gemini-backed endpoints return CompletableFuture so the servlet thread is handed
+    // back to Tomcat while the model call runs on the geminiExecutor.
+
     @PostMapping("/ask")
-    public String askAI(@RequestBody QuestionRequest request) {
-        return geminiService.askGemini(request.getQuestion());
+    public CompletableFuture<String> askAI(@RequestBody QuestionRequest request) {
+        return geminiService.askGeminiCachedAsync(request.getQuestion());
     }
 
     @GetMapping("/startInterview")
-    public String startInterview(@RequestParam String role) {
-        String prompt = "Start a mock interview for the role of a " + role + ". Ask a question.ONLY QUESTION NOT A SINGLE EXTRA WORD";
-        return geminiService.askGemini(prompt);
+    public CompletableFuture<ResponseEntity<String>> startInterview(@RequestParam String role, HttpServletRequest httpRequest) {
+        InterviewState state = stateCodec.isEnabled() ? new InterviewState(role, sessionEmail(httpRequest.getSession(false))) : null;
+        return questionPoolService.poll(role)
+            .map(CompletableFuture::completedFuture)
+            .orElseGet(() -> geminiService.generateQuestionAsync(role, startPrompt(role)))
+            .thenApply(question -> questionResponse(question, state));
     }
+
+    /**
+     * SSE variant of {@code /startInterview}: emits a {@code token} event per streamed
+     * chunk and a final {@code done} event carrying the complete question.
+     */
+    @GetMapping(value = "/startInterview/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter startInterviewStream(@RequestParam String role, HttpServletRequest httpRequest) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        InterviewState state = stateCodec.isEnabled() ? new InterviewState(role, sessionEmail(httpRequest.getSession(false))) : null;
+        geminiService.streamQuestionAsync(role, startPrompt(role), chunk -> sendEvent(emitter, "token", chunk))
+            .whenComplete((question, e) -> {
+                if (e != null) {
+                    sendEvent(emitter, "error", "Sorry, there was a technical issue. Please try again.");
+                } else {
+                    if (state != null) {
+                        state.markAsked(question.trim(), stateCodec.getMaxFingerprints());
+                        sendEvent(emitter, "state", stateCodec.encode(state));
+                    }
+                    sendEvent(emitter, "done", question.trim());
+                }
+                emitter.complete();
+            });
+        return emitter;
+    }
+
 @PostMapping(value = "/submitAnswer", produces = "application/json")
 @ResponseBody
-public ResponseEntity<GeminiResponse> submitAnswer(@RequestBody AnswerRequest request, HttpSession session) {
-    String prompt = 
-    "You must ONLY return a valid JSON object. Do not explain anything. Do not wrap it in triple backticks or markdown.\n\n"
-    + "You are acting as an AI interviewer for the role of " + request.getRole() + ".\n"
-    + "Ask behavioural and role based question . Here is the question I asked: \"" + request.getQuestion() + "\"\n"
-    + "Here is the candidate's answer: \"" + request.getAnswer() + "\"\n"
-    + "Please evaluate this answer and give:\n"
-    + "1. A score out of 10\n"
-    + "2. A list of strengths\n"
-    + "3. A list of weaknesses\n"
-    + "4. A brief feedback paragraph\n"
-    + "Return this in JSON format like:\n"
-    + "{ \"score\": 8, \"strengths\": [\"Clear explanation\"], \"weaknesses\": [\"Too short\"], \"feedback\": \"You explained clearly but missed some edge cases.\" }";
-
-    // String prompt = "You are acting as an AI interviewer for the role of " + request.getRole() + ".\n"
-    //         + "Here is the question I asked: \"" + request.getQuestion() + "\"\n"
-    //         + "Here is the candidate's answer: \"" + request.getAnswer() + "\"\n"
-    //         + "Please evaluate this answer and give:\n"
-    //         + "1. A score out of 10\n"
-    //         + "2. A list of strengths\n"
-    //         + "3. A list of weaknesses\n"
-    //         + "4. A brief feedback paragraph\n"
-    //         + "Return this in JSON format like: { \"score\": 8, \"strengths\": [\"Clear explanation\"], \"weaknesses\": [\"Too short\"], \"feedback\": \"You explained clearly but missed some edge cases.\" }";
+public CompletableFuture<ResponseEntity<GeminiResponse>> submitAnswer(@RequestBody AnswerRequest request,
+        @RequestHeader(value = InterviewStateCodec.HEADER, required = false) String stateToken,
+        HttpServletRequest httpRequest) {
+    InterviewState state = readState(stateToken, request.getRole(), httpRequest);
+    HttpSession session = state != null ? httpRequest.getSession(false) : httpRequest.getSession();
+    String cacheKey = evaluationCache.key(request);
+    // A stored evaluation of the same answer is returned without calling Gemini
+    CompletableFuture<GeminiResponse> graded = evaluationCache.get(cacheKey)
+        .thenCompose(cached -> cached
+            .map(CompletableFuture::completedFuture)
+            .orElseGet(() -> geminiService.evaluateAsync(request.getRole(), evaluationPrompt(request))
+                .thenApply(raw -> parseAndCache(raw, cacheKey))));
+    return graded
+        .thenApply(evaluation -> {
+            recordAndPersist(evaluation, request, session, state);
+            if (state == null) {
+                return ResponseEntity.ok(evaluation);
+            }
+            return ResponseEntity.ok().header(InterviewStateCodec.HEADER, stateCodec.encode(state)).body(evaluation);
+        })
+        .exceptionally(e -> {
+            logger.warn("Error in submitAnswer: {}", e.getMessage());
+            // Upstream outage (breaker open, timeouts, retries exhausted) is a 503, an
+            // evaluation we could not parse a 502, anything else a 500
+            int status = (e.getCause() instanceof GeminiUnavailableException) ? 503
+                : (e.getCause() instanceof EvaluationParseException) ? 502 : 500;
+            return ResponseEntity.status(status).body(technicalErrorResponse());
+        });
+}
 
-    try {
-        String raw = geminiService.askGemini(prompt).trim();
-        
-        // Clean up response - remove markdown code blocks
-        if (raw.startsWith("```")) {
-            int startIndex = raw.indexOf("{");
-            int endIndex = raw.lastIndexOf("}");
-            if (startIndex != -1 && endIndex != -1) {
-                raw = raw.substring(startIndex, endIndex + 1);
+/**
+ * SSE variant of {@code /submitAnswer}: streams the raw evaluation as {@code token}
+ * events, then sends the parsed {@link GeminiResponse} as a {@code result} event once
+ * the answer has been recorded.
+ */
+@PostMapping(value = "/submitAnswer/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+public SseEmitter submitAnswerStream(@RequestBody AnswerRequest request,
+        @RequestHeader(value = InterviewStateCodec.HEADER, required = false) String stateToken,
+        HttpServletRequest httpRequest) {
+    SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+    InterviewState state = readState(stateToken, request.getRole(), httpRequest);
+    HttpSession session = state != null ? httpRequest.getSession(false) : httpRequest.getSession();
+    String cacheKey = evaluationCache.key(request);
+    // On a cache hit there is nothing to stream; the result event follows immediately
+    evaluationCache.get(cacheKey)
+        .thenCompose(cached -> cached
+            .map(CompletableFuture::completedFuture)
+            .orElseGet(() -> geminiService.streamEvaluationAsync(request.getRole(), evaluationPrompt(request), chunk -> sendEvent(emitter, "token", chunk))
+                .thenApply(raw -> parseAndCache(raw, cacheKey))))
+        .thenApply(evaluation -> recordAndPersist(evaluation, request, session, state))
+        .whenComplete((evaluation, e) -> {
+            if (e != null) {
+                logger.warn("Error in submitAnswerStream: {}", e.getMessage());
+                sendEvent(emitter, "error", technicalErrorResponse());
+            } else {
+                if (state != null) {
+                    sendEvent(emitter, "state", stateCodec.encode(state));
+                }
+                sendEvent(emitter, "result", evaluation);
             }
-        }
+            emitter.complete();
+        });
+    return emitter;
+}
 
-        System.out.println("AI RAW RESPONSE: " + raw);
-
-        ObjectMapper mapper = new ObjectMapper();
-        GeminiResponse geminiResponse;
-        try {
-            geminiResponse = mapper.readValue(raw, GeminiResponse.class);
-        } catch (IOException e) {
-            System.err.println("Failed to parse AI response: " + raw);
-            geminiResponse = new GeminiResponse(5, 
-                Arrays.asList("Attempted to answer"), 
-                Arrays.asList("Response unclear"), 
-                "Please try to be more specific in your answer.");
-        }
+/**
+ * Grades a whole interview in as few model calls as possible (see
+ * {@link BatchEvaluationService}) and records every answer as {@code /submitAnswer}
+ * would, with a single insert for all of them. The request role applies to every
+ * answer. Evaluations are returned in the order of the answers.
+ */
+@PostMapping(value = "/evaluateBatch", produces = "application/json")
+@ResponseBody
+public CompletableFuture<ResponseEntity<List<GeminiResponse>>> evaluateBatch(@RequestBody BatchEvaluationRequest request,
+        @RequestHeader(value = InterviewStateCodec.HEADER, required = false) String stateToken,
+        HttpServletRequest httpRequest) {
+    InterviewState state = readState(stateToken, request.getRole(), httpRequest);
+    HttpSession session = state != null ? httpRequest.getSession(false) : httpRequest.getSession();
+    return batchEvaluationService.evaluate(request.getRole(), request.getAnswers())
+        .thenApply(evaluations -> {
+            List<InterviewResponse> responses = new ArrayList<>(evaluations.size());
+            for (int i = 0; i < evaluations.size(); i++) {
+                AnswerRequest answer = request.getAnswers().get(i);
+                answer.setRole(request.getRole());
+                responses.add(record(answer, evaluations.get(i), session, state));
+            }
+            interviewResponseWriter.writeAll(responses);
+            if (state == null) {
+                return ResponseEntity.ok(evaluations);
+            }
+            return ResponseEntity.ok().header(InterviewStateCodec.HEADER, stateCodec.encode(state)).body(evaluations);
+        })
+        .exceptionally(e -> {
+            logger.warn("Error in evaluateBatch: {}", e.getMessage());
+            int status = (e.getCause() instanceof GeminiUnavailableException) ? 503
+                : (e.getCause() instanceof EvaluationParseException) ? 502 : 500;
+            return ResponseEntity.status(status).body(List.of(technicalErrorResponse()));
+        });
+}
 
-    List<GeminiResponse> feedbackList = (List<GeminiResponse>) session.getAttribute("feedbackList");
-    if (feedbackList == null) feedbackList = new ArrayList<>();
-    feedbackList.add(geminiResponse);
-    session.setAttribute("feedbackList", feedbackList);
-    Object userObj = session.getAttribute("user");
-String userEmail = (userObj instanceof User) ? ((User) userObj).getEmail() : "anonymous";
+private String startPrompt(String role) {
+    return promptTemplates.render("start-interview", Map.of("role", role));
+}
+
+private String evaluationPrompt(AnswerRequest request) {
+    return promptTemplates.render("evaluation", Map.of(
+        "role", request.getRole(),
+        "question", request.getQuestion(),
+        "answer", request.getAnswer()));
+}
+
+private GeminiResponse technicalErrorResponse() {
+    return new GeminiResponse(0, 
+        Arrays.asList(), 
+        Arrays.asList("Technical error occurred"), 
+        "Sorry, there was a technical issue. Please try again.");
+}
+
+private void sendEvent(SseEmitter emitter, String name, Object data) {
+    try {
+        emitter.send(SseEmitter.event().name(name).data(data));
+    } catch (IOException | IllegalStateException e) {
+        // Client disconnected or the emitter already finished; stop streaming to it
+        emitter.completeWithError(e);
+    }
+}
+
+private GeminiResponse parseAndCache(String raw, String cacheKey) {
+    logger.debug("Gemini evaluation: {}", raw);
+    // Unparseable evaluations fail the request instead of recording a made-up score
+    GeminiResponse geminiResponse = evaluationParser.parse(raw.trim());
+    evaluationCache.put(cacheKey, geminiResponse);
+    return geminiResponse;
+}
+
+/**
+ * Records the evaluation: in the stateless {@code state} when one is given, otherwise
+ * in the session scoreboard. {@code session} may be null in stateless mode for
+ * anonymous users.
+ */
+private GeminiResponse recordAndPersist(GeminiResponse geminiResponse, AnswerRequest request, HttpSession session,
+        InterviewState state) {
+// Single write: user stats are projected from interview_responses asynchronously
+interviewResponseWriter.enqueue(record(request, geminiResponse, session, state));
+
+        return geminiResponse;
+}
+
+/**
+ * Adds an evaluation to the stateless {@code state} or the session scoreboard and
+ * builds the response document to persist for it.
+ */
+private InterviewResponse record(AnswerRequest request, GeminiResponse geminiResponse, HttpSession session,
+        InterviewState state) {
+    if (state != null) {
+        state.recordScore(geminiResponse.getScore());
+    } else {
+        // Runs on a Gemini executor thread; the mutex keeps two first answers from each creating a scoreboard
+        synchronized (WebUtils.getSessionMutex(session)) {
+            InterviewScoreboard scoreboard = (InterviewScoreboard) session.getAttribute(SCOREBOARD_ATTRIBUTE);
+            if (scoreboard == null) scoreboard = new InterviewScoreboard(scoreboardMaxTraits);
+            scoreboard.record(geminiResponse);
+            // Re-set so a persistent session store sees the change
+            session.setAttribute(SCOREBOARD_ATTRIBUTE, scoreboard);
+        }
+    }
+    String userEmail = sessionEmail(session);
+    if (userEmail == null && state != null) userEmail = state.getEmail();
+    if (userEmail == null) userEmail = "anonymous";
 
 InterviewResponse responseObject = new InterviewResponse();
 responseObject.setUserEmail(userEmail);
@@ -133,78 +323,121 @@ responseObject.setScore(geminiResponse.getScore());
 responseObject.setStrengths(geminiResponse.getStrengths());
 responseObject.setWeaknesses(geminiResponse.getWeaknesses());
 responseObject.setFeedback(geminiResponse.getFeedback());
-
-interviewResponseRepository.save(responseObject);
-
-
-
-    
-    // After storing feedback in session
-User user = (User) session.getAttribute("user"); // assuming you store logged-in user in session
-if (user != null) {
-    UserStats.InterviewRecord record = new UserStats.InterviewRecord();
-    record.setQuestion(request.getQuestion());
-    record.setAnswer(request.getAnswer());
-    record.setScore(geminiResponse.getScore());
-    record.setStrengths(geminiResponse.getStrengths());
-    record.setWeaknesses(geminiResponse.getWeaknesses());
-    record.setFeedback(geminiResponse.getFeedback());
-   record.setTimestamp(System.currentTimeMillis()); // ✅ required
-record.setDate(java.time.LocalDate.now().toString()); // ✅ optional (format: "2025-07-02")
-
-   userStatsService.updateInterviewStats(user.getEmail(), record);
-
-}
-
-
-        return ResponseEntity.ok(geminiResponse);
-        
-    } catch (Exception e) {
-        System.err.println("Error in submitAnswer: " + e.getMessage());
-        GeminiResponse errorResponse = new GeminiResponse(0, 
-            Arrays.asList(), 
-            Arrays.asList("Technical error occurred"), 
-            "Sorry, there was a technical issue. Please try again.");
-        return ResponseEntity.status(500).body(errorResponse);
-    }
+return responseObject;
 }
 
     
 
     @GetMapping("/nextQuestion")
-    public String getNextQuestion(@RequestParam String role, @RequestParam(defaultValue = "0") int questionIndex) {
-        String prompt = "You are conducting a mock interview for the role of " + role + ". "
-                + "Ask the " + (questionIndex + 1) + "th question in the interview. "
-                + "ONLY QUESTION, NOT A SINGLE EXTRA WORD.";
+    public CompletableFuture<ResponseEntity<String>> getNextQuestion(@RequestParam String role,
+            @RequestParam(defaultValue = "0") int questionIndex,
+            @RequestHeader(value = InterviewStateCodec.HEADER, required = false) String stateToken,
+            HttpServletRequest httpRequest) {
+        InterviewState state = readState(stateToken, role, httpRequest);
+        if (state != null) {
+            state.setQuestionIndex(state.getQuestionIndex() + 1);
+            questionIndex = state.getQuestionIndex();
+        }
+        String prompt = promptTemplates.render("next-question", Map.of("role", role, "number", questionIndex + 1));
 
-        return geminiService.askGemini(prompt);
+        return pollUnasked(role, state)
+            .map(CompletableFuture::completedFuture)
+            .orElseGet(() -> geminiService.generateQuestionAsync(role, prompt))
+            .thenApply(question -> questionResponse(question, state));
     }
 
+    /**
+     * Score summary for the current interview. In stateless mode the state token carries
+     * only the score sum and answer count, so {@code strengths} and {@code weaknesses} are
+     * always empty lists there; per-answer feedback is returned by {@code /submitAnswer}.
+     */
     @GetMapping("/score")
-    public ResponseEntity<Map<String, Object>> getScore(HttpSession session) {
-        List<GeminiResponse> feedbackList = (List<GeminiResponse>) session.getAttribute("feedbackList");
+    public ResponseEntity<Map<String, Object>> getScore(
+            @RequestHeader(value = InterviewStateCodec.HEADER, required = false) String stateToken,
+            HttpServletRequest httpRequest) {
+        long scoreSum;
+        int count;
+        List<String> strengths = List.of();
+        List<String> weaknesses = List.of();
+        if (stateCodec.isEnabled() && stateToken != null) {
+            // Stateless tokens carry totals only; the strength/weakness sets are reported empty
+            InterviewState state = stateCodec.decode(stateToken);
+            scoreSum = state.getScoreSum();
+            count = state.getCount();
+        } else {
+            HttpSession session = httpRequest.getSession(false);
+            InterviewScoreboard scoreboard = session == null ? null
+                : (InterviewScoreboard) session.getAttribute(SCOREBOARD_ATTRIBUTE);
+            if (scoreboard == null) {
+                scoreSum = 0;
+                count = 0;
+            } else {
+                // One consistent snapshot while evaluations may still be recording
+                synchronized (scoreboard) {
+                    scoreSum = scoreboard.getScoreSum();
+                    count = scoreboard.getCount();
+                    strengths = scoreboard.getStrengths();
+                    weaknesses = scoreboard.getWeaknesses();
+                }
+            }
+        }
 
-        if (feedbackList == null || feedbackList.isEmpty()) {
+        if (count == 0) {
             return ResponseEntity.badRequest().body(Map.of("error", "No answers found"));
         }
 
-        int totalScore = feedbackList.stream().mapToInt(GeminiResponse::getScore).sum();
-        Set<String> strengths = new HashSet<>();
-        Set<String> weaknesses = new HashSet<>();
+        Map<String, Object> response = new HashMap<>();
+        response.put("score", scoreSum);
+        response.put("strengths", strengths);
+        response.put("weaknesses", weaknesses);
+        response.put("totalQuestions", count);
+        response.put("maxScore", count * 10);
+
+        return ResponseEntity.ok(response);
+    }
 
-        for (GeminiResponse response : feedbackList) {
-            strengths.addAll(response.getStrengths());
-            weaknesses.addAll(response.getWeaknesses());
+    /**
+     * Interview state for a stateless request, or null when stateless mode is off.
+     * A missing token starts a fresh state for {@code role}. The role is part of the signed
+     * state, so a request for a different role is rejected rather than rewriting it; the
+     * client starts a new interview without a token instead.
+     */
+    private InterviewState readState(String stateToken, String role, HttpServletRequest httpRequest) {
+        if (!stateCodec.isEnabled()) {
+            return null;
+        }
+        if (stateToken == null || stateToken.isBlank()) {
+            return new InterviewState(role, sessionEmail(httpRequest.getSession(false)));
+        }
+        InterviewState state = stateCodec.decode(stateToken);
+        if (!Objects.equals(state.getRole(), role)) {
+            throw new IllegalArgumentException("Interview state token belongs to a different role");
         }
+        return state;
+    }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("score", totalScore);
-        response.put("strengths", new ArrayList<>(strengths));
-        response.put("weaknesses", new ArrayList<>(weaknesses));
-        response.put("totalQuestions", feedbackList.size());
-        response.put("maxScore", feedbackList.size() * 10);
+    // Skips pooled questions this interview has already asked; gives up after a few tries
+    private Optional<String> pollUnasked(String role, InterviewState state) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            Optional<String> question = questionPoolService.poll(role);
+            if (question.isEmpty() || state == null || !state.wasAsked(question.get())) {
+                return question;
+            }
+        }
+        return Optional.empty();
+    }
 
-        return ResponseEntity.ok(response);
+    private ResponseEntity<String> questionResponse(String question, InterviewState state) {
+        if (state == null) {
+            return ResponseEntity.ok(question);
+        }
+        state.markAsked(question, stateCodec.getMaxFingerprints());
+        return ResponseEntity.ok().header(InterviewStateCodec.HEADER, stateCodec.encode(state)).body(question);
+    }
+
+    private static String sessionEmail(HttpSession session) {
+        Object user = session == null ? null : session.getAttribute("user");
+        return (user instanceof User) ? ((User) user).getEmail() : null;
     }
 //     @GetMapping("/me")
 // public Map<String, String> getCurrentUser(OAuth2AuthenticationToken authentication) {
@@ -264,8 +497,7 @@ public void redirectAfterLogin(HttpServletRequest request,HttpServletResponse re
     String email = token.getPrincipal().getAttribute("email");
     String name = token.getPrincipal().getAttribute("name");
 
-    System.out.println("OAuth Email: " + email);
-    System.out.println("OAuth Name: " + name);
+    logger.debug("OAuth login redirect for {}", email);
 
     String encodedName = URLEncoder.encode(name, StandardCharsets.UTF_8);
 
@@ -1,12 +1,23 @@
 package com.example.interviewsimulator.controller;
 
+import com.example.interviewsimulator.model.FeedbackSummary;
+import com.example.interviewsimulator.model.HistoryPage;
+import com.example.interviewsimulator.model.InterviewResponse;
+import com.example.interviewsimulator.repository.InterviewResponseRepository;
 import com.example.interviewsimulator.model.UserStats;
+import com.example.interviewsimulator.service.BatchEvaluationService;
 import com.example.interviewsimulator.service.UserStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/user")
 @CrossOrigin(origins = "*")
@@ -14,6 +25,14 @@ public class UserStatsController {
 
     @Autowired
     private UserStatsService service;
+
+    @Autowired
+    private InterviewResponseRepository interviewResponseRepository;
+
+    @Autowired
+    private BatchEvaluationService batchEvaluationService;
+
+    private static final int MAX_PAGE_SIZE = 100;
     
     
     @GetMapping("/me")
@@ -55,6 +74,69 @@ public ResponseEntity<UserStats> getStats(@PathVariable String email, OAuth2Auth
 }
 
 
+    @GetMapping("/{email}/history")
+    public ResponseEntity<List<UserStats.InterviewRecord>> getHistory(@PathVariable String email,
+                                                                      @RequestParam(defaultValue = "0") int page) {
+        return ResponseEntity.ok(service.getInterviewHistory(email, page));
+    }
+
+    /**
+     * Cursor-paginated answers of one user, newest first, optionally filtered by role
+     * and by an ISO-8601 {@code from}/{@code to} range. Pass back {@code nextCursor}
+     * to get the following page.
+     */
+    @GetMapping("/{email}/responses")
+    public ResponseEntity<HistoryPage<InterviewResponse>> getResponses(
+            @PathVariable String email,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(interviewResponseRepository.findHistory(email, role, from, to, cursor, pageSize));
+    }
+
+    /**
+     * Re-grades one page of stored answers (same filters and cursor as
+     * {@code /responses}) with batch evaluation and writes the new evaluations back in
+     * one bulk update. Answers without a role, question or answer are returned as they
+     * are. User stats keep the scores recorded when the answers were given.
+     * Users can only re-grade their own answers, since this overwrites them and costs
+     * model calls.
+     */
+    @PostMapping("/{email}/responses/regrade")
+    public CompletableFuture<ResponseEntity<HistoryPage<InterviewResponse>>> regradeResponses(
+            @PathVariable String email,
+            OAuth2AuthenticationToken authentication,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        String caller = authentication != null ? authentication.getPrincipal().getAttribute("email") : null;
+        if (caller == null || !caller.equalsIgnoreCase(email)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        HistoryPage<InterviewResponse> page = interviewResponseRepository.findHistory(email, role, from, to, cursor, pageSize);
+        if (page.getItems().isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.ok(page));
+        }
+        return batchEvaluationService.regrade(page.getItems())
+            .thenApply(regraded -> {
+                if (!regraded.isEmpty()) {
+                    interviewResponseRepository.updateEvaluations(regraded);
+                }
+                return ResponseEntity.ok(page);
+            });
+    }
+
+    @GetMapping("/{email}/feedback-summary")
+    public ResponseEntity<FeedbackSummary> getFeedbackSummary(@PathVariable String email) {
+        return ResponseEntity.ok(service.getFeedbackSummary(email));
+    }
+
     @PostMapping("/")
     public ResponseEntity<UserStats> saveStats(@RequestBody UserStats stats) {
         UserStats saved = service.save(stats);
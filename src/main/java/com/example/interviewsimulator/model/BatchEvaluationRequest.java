@@ -0,0 +1,25 @@
+package com.example.interviewsimulator.model;
+
+import java.util.List;
+
+public class BatchEvaluationRequest {
+    private String role;
+    private List<AnswerRequest> answers;
+
+    // Getters and Setters
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    public List<AnswerRequest> getAnswers() {
+        return answers;
+    }
+
+    public void setAnswers(List<AnswerRequest> answers) {
+        this.answers = answers;
+    }
+}
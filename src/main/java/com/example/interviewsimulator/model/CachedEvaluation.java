@@ -0,0 +1,32 @@
+package com.example.interviewsimulator.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A stored evaluation, keyed by a hash of everything that determines it (see
+ * {@code EvaluationCache}). Mongo's TTL monitor deletes the document once
+ * {@code expiresAt} has passed.
+ */
+@Data
+@Document(collection = "evaluation_cache")
+public class CachedEvaluation {
+
+    @Id
+    private String key;
+
+    private int score;
+    private List<String> strengths;
+    private List<String> weaknesses;
+    private String feedback;
+
+    private Date createdAt;
+
+    @Indexed(name = "expiresAt_ttl", expireAfter = "0s")
+    private Date expiresAt;
+}
@@ -0,0 +1,19 @@
+package com.example.interviewsimulator.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Aggregated view of a user's interview feedback: how many answers were graded,
+ * their average score and the strengths/weaknesses mentioned most often.
+ */
+@Data
+public class FeedbackSummary {
+
+    private String email;
+    private int totalAnswers;
+    private double averageScore;
+    private List<String> topStrengths;
+    private List<String> topWeaknesses;
+}
@@ -0,0 +1,31 @@
+package com.example.interviewsimulator.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.List;
+
+/**
+ * A fixed-size slice of one user's interview history. Records are appended to the
+ * user's open bucket until it holds {@code app.stats.history-bucket-size} entries, so
+ * no single document grows without bound. Buckets written by the history migration are
+ * sealed and never receive new records.
+ */
+@Data
+@Document(collection = "interview_history")
+@CompoundIndex(name = "email_firstTimestamp", def = "{'email': 1, 'firstTimestamp': -1}")
+public class InterviewHistoryBucket {
+
+    @Id
+    private String id;
+
+    private String email;
+    private int count;
+    private long firstTimestamp;
+    private long lastTimestamp;
+    private boolean sealed;
+
+    private List<UserStats.InterviewRecord> records;
+}
@@ -1,12 +1,21 @@
 package com.example.interviewsimulator.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
 import java.util.List;
 
 @Document(collection = "interview_responses")
+@CompoundIndexes({
+    // Per-user history, newest first; _id breaks ties for keyset pagination
+    @CompoundIndex(name = "userEmail_timestamp", def = "{'userEmail': 1, 'timestamp': -1, '_id': -1}"),
+    @CompoundIndex(name = "role_timestamp", def = "{'role': 1, 'timestamp': -1}"),
+    // Responses whose stats projection has not been confirmed yet; small, so partial
+    @CompoundIndex(name = "pending_projection", def = "{'timestamp': 1}", partialFilter = "{'statsProjected': false}")
+})
 public class InterviewResponse {
 
     @Id
@@ -24,6 +33,9 @@ public class InterviewResponse {
 
     private Date timestamp = new Date();
 
+    // False until the answer is applied to the user's stats; older documents lack the field
+    private boolean statsProjected;
+
     // Getters and Setters
 
     public String getId() {
@@ -105,4 +117,12 @@ public class InterviewResponse {
     public void setTimestamp(Date timestamp) {
         this.timestamp = timestamp;
     }
+
+    public boolean isStatsProjected() {
+        return statsProjected;
+    }
+
+    public void setStatsProjected(boolean statsProjected) {
+        this.statsProjected = statsProjected;
+    }
 }
@@ -0,0 +1,81 @@
+package com.example.interviewsimulator.model;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Running score for the current interview, kept in the HTTP session in place of the
+ * full list of evaluations. Its size is fixed: a score sum, an answer count and at
+ * most {@code maxTraits} distinct strengths and weaknesses each. When a set is full
+ * the least recently mentioned trait is dropped, so recurring ones are kept.
+ * <p>
+ * Evaluations complete on Gemini executor threads, so concurrent answers in one session
+ * update the same instance; all access is synchronized on it.
+ */
+public class InterviewScoreboard implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int maxTraits;
+    private long scoreSum;
+    private int count;
+    private final LinkedHashSet<String> strengths = new LinkedHashSet<>();
+    private final LinkedHashSet<String> weaknesses = new LinkedHashSet<>();
+
+    public InterviewScoreboard(int maxTraits) {
+        this.maxTraits = maxTraits;
+    }
+
+    public synchronized void record(GeminiResponse evaluation) {
+        scoreSum += evaluation.getScore();
+        count++;
+        addAll(strengths, evaluation.getStrengths());
+        addAll(weaknesses, evaluation.getWeaknesses());
+    }
+
+    private void addAll(LinkedHashSet<String> traits, List<String> mentioned) {
+        if (mentioned == null) {
+            return;
+        }
+        for (String trait : mentioned) {
+            if (trait == null || trait.isBlank()) {
+                continue;
+            }
+            String value = trait.trim();
+            // Re-insert so the set stays ordered by most recent mention
+            traits.remove(value);
+            traits.add(value);
+            if (traits.size() > maxTraits) {
+                Iterator<String> oldest = traits.iterator();
+                oldest.next();
+                oldest.remove();
+            }
+        }
+    }
+
+    public synchronized long getScoreSum() {
+        return scoreSum;
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    public synchronized List<String> getStrengths() {
+        return new ArrayList<>(strengths);
+    }
+
+    public synchronized List<String> getWeaknesses() {
+        return new ArrayList<>(weaknesses);
+    }
+
+    // A session store may serialize the scoreboard while an evaluation is recording into it
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+    }
+}
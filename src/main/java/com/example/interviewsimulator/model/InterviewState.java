@@ -0,0 +1,112 @@
+package com.example.interviewsimulator.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Interview progress carried by the client in stateless mode (see
+ * {@link com.example.interviewsimulator.service.InterviewStateCodec}) instead of the
+ * HTTP session. Asked questions are kept as 32-bit fingerprints, newest last, so the
+ * state stays small however long the interview runs.
+ */
+public class InterviewState {
+
+    private String role;
+    private String email;
+    private int questionIndex;
+    private long scoreSum;
+    private int count;
+    private long issuedAt;
+    private List<Integer> askedFingerprints = new ArrayList<>();
+
+    public InterviewState() {}
+
+    public InterviewState(String role, String email) {
+        this.role = role;
+        this.email = email;
+    }
+
+    public void recordScore(int score) {
+        scoreSum += score;
+        count++;
+    }
+
+    /** Remembers a question as asked, dropping the oldest fingerprints beyond {@code limit}. */
+    public void markAsked(String question, int limit) {
+        askedFingerprints.add(fingerprint(question));
+        while (askedFingerprints.size() > limit) {
+            askedFingerprints.remove(0);
+        }
+    }
+
+    public boolean wasAsked(String question) {
+        return askedFingerprints.contains(fingerprint(question));
+    }
+
+    // FNV-1a over the normalized question; collisions only cost a skipped pool question
+    public static int fingerprint(String question) {
+        String normalized = question == null ? "" : question.trim().toLowerCase();
+        int hash = 0x811c9dc5;
+        for (int i = 0; i < normalized.length(); i++) {
+            hash ^= normalized.charAt(i);
+            hash *= 0x01000193;
+        }
+        return hash;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public int getQuestionIndex() {
+        return questionIndex;
+    }
+
+    public void setQuestionIndex(int questionIndex) {
+        this.questionIndex = questionIndex;
+    }
+
+    public long getScoreSum() {
+        return scoreSum;
+    }
+
+    public void setScoreSum(long scoreSum) {
+        this.scoreSum = scoreSum;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+
+    public void setIssuedAt(long issuedAt) {
+        this.issuedAt = issuedAt;
+    }
+
+    public List<Integer> getAskedFingerprints() {
+        return askedFingerprints;
+    }
+
+    public void setAskedFingerprints(List<Integer> askedFingerprints) {
+        this.askedFingerprints = askedFingerprints;
+    }
+}
@@ -4,6 +4,7 @@ import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -19,8 +20,148 @@ public class UserStats {
 
     private Map<String, Integer> skillLevels; // JS: 75, Algo: 60, etc.
 
+    // Only the most recent records (app.stats.recent-interviews); the full history
+    // lives in interview_history buckets
     private List<InterviewRecord> pastInterviews;
 
+    // Set on every document written since history moved to interview_history;
+    // documents from before that lack the field and are picked up by the migration
+    private boolean historyBucketed = true;
+
+    // Set once the running aggregates cover the user's whole history; documents from
+    // before the aggregates existed lack it and are recomputed from their history
+    private boolean aggregatesBackfilled = true;
+
+    // Running aggregates, maintained with $inc so an answer never needs a read
+    private long interviewCount;
+    private double scoreSum;
+    private Map<String, TopicStats> topicStats;
+
+    // Ids of the most recently projected interview_responses (app.stats.projection.dedup-window),
+    // so a replayed response is not counted twice
+    private List<String> projectedIds;
+
+    /** Progress as average score x 10, derived from the running aggregates when present. */
+    public double getProgress() {
+        return interviewCount > 0 ? scoreSum / interviewCount * 10 : progress;
+    }
+
+    /** Rounded average score per topic, derived from the running aggregates when present. */
+    public Map<String, Integer> getSkillLevels() {
+        if (topicStats == null || topicStats.isEmpty()) {
+            return skillLevels;
+        }
+        Map<String, Integer> levels = new LinkedHashMap<>();
+        topicStats.forEach((topic, stat) -> {
+            if (stat.getCount() > 0) {
+                levels.put(topic, (int) Math.round(stat.getScoreSum() / stat.getCount()));
+            }
+        });
+        return levels;
+    }
+
+    /**
+     * Streaming statistics for one topic, kept as plain counters so each answer is a
+     * single {@code $inc}. The recent score is a time-decayed mean whose weights halve
+     * every half-life. Each score is stored pre-multiplied by
+     * {@code 2^((timestamp - recencyEpoch) / recencyHalfLife)}. Decay applies equally to
+     * {@code recentSum} and {@code recentWeight}, so their ratio does not depend on when
+     * it is read.
+     *
+     * <p>The epoch moves forward every {@link #EPOCH_HALF_LIVES} half-lives, which keeps
+     * the weights of new answers far from overflowing however long the app runs. Both
+     * epoch and half-life are stored with the sums; sums on an older epoch are rescaled
+     * with {@link #rebase}, and sums decayed with another half-life are recomputed from
+     * the history. Mean, variance and trend are derived on read.
+     */
+    @Data
+    public static class TopicStats {
+
+        // Epoch of stats written before the epoch and half-life were stored
+        public static final long LEGACY_RECENCY_EPOCH_MILLIS = 1735689600000L; // 2025-01-01T00:00:00Z
+
+        public static final int EPOCH_HALF_LIVES = 64;
+
+        private long count;
+        private double scoreSum;
+        private double sumSquares;
+        private double recentSum;
+        private double recentWeight;
+        private long recencyEpoch;
+        private long recencyHalfLife;
+
+        /** Epoch new answers are weighted against at {@code now}. */
+        public static long recencyEpoch(long now, long halfLifeMillis) {
+            long period = halfLifeMillis * EPOCH_HALF_LIVES;
+            return LEGACY_RECENCY_EPOCH_MILLIS + Math.floorDiv(now - LEGACY_RECENCY_EPOCH_MILLIS, period) * period;
+        }
+
+        /** Weight of an answer given at {@code timestamp} in the recent score. */
+        public static double recencyWeight(long timestamp, long epoch, long halfLifeMillis) {
+            return Math.pow(2, (double) (timestamp - epoch) / halfLifeMillis);
+        }
+
+        /**
+         * Rescales the recent sums onto {@code epoch}. Returns false, changing nothing, if
+         * they were decayed with another half-life or are not finite; only a recompute
+         * from the history can fix those.
+         */
+        public boolean rebase(long epoch, long halfLifeMillis) {
+            if (recentWeight != 0) {
+                // Stats from before the half-life was stored used the legacy epoch
+                long storedHalfLife = recencyHalfLife > 0 ? recencyHalfLife : halfLifeMillis;
+                long storedEpoch = recencyHalfLife > 0 ? recencyEpoch : LEGACY_RECENCY_EPOCH_MILLIS;
+                if (storedHalfLife != halfLifeMillis || !Double.isFinite(recentSum) || !Double.isFinite(recentWeight)) {
+                    return false;
+                }
+                double factor = recencyWeight(storedEpoch, epoch, halfLifeMillis);
+                recentSum *= factor;
+                recentWeight *= factor;
+            }
+            recencyEpoch = epoch;
+            recencyHalfLife = halfLifeMillis;
+            return true;
+        }
+
+        /** Adds one score in place; the same increments the per-answer update applies. */
+        public void record(double score, long timestamp, long epoch, long halfLifeMillis) {
+            if (recencyEpoch != epoch || recencyHalfLife != halfLifeMillis) {
+                if (!rebase(epoch, halfLifeMillis)) {
+                    throw new IllegalStateException("Recent sums were decayed with another half-life");
+                }
+            }
+            double weight = recencyWeight(timestamp, epoch, halfLifeMillis);
+            count++;
+            scoreSum += score;
+            sumSquares += score * score;
+            recentSum += score * weight;
+            recentWeight += weight;
+        }
+
+        public double getMean() {
+            return count > 0 ? scoreSum / count : 0;
+        }
+
+        /** Sample variance of the scores; 0 until there are two of them. */
+        public double getVariance() {
+            if (count < 2) {
+                return 0;
+            }
+            return Math.max(0, (sumSquares - scoreSum * scoreSum / count) / (count - 1));
+        }
+
+        /** Recency-weighted mean score; the plain mean for stats without usable recency data. */
+        public double getRecentScore() {
+            double recent = recentSum / recentWeight;
+            return recentWeight > 0 && Double.isFinite(recent) ? recent : getMean();
+        }
+
+        /** Recent score minus the all-time mean: positive when the user is improving. */
+        public double getTrend() {
+            return getRecentScore() - getMean();
+        }
+    }
+
     @Data
 public static class InterviewRecord {
     private String question;
@@ -31,5 +172,6 @@ public static class InterviewRecord {
     private String feedback;
     private long timestamp;
     private String date;  // optional
+    private String responseId; // interview_responses id this record was projected from, if any
 }
 }
@@ -0,0 +1,13 @@
+package com.example.interviewsimulator.repository;
+
+import com.example.interviewsimulator.model.InterviewHistoryBucket;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface InterviewHistoryRepository extends MongoRepository<InterviewHistoryBucket, String> {
+    List<InterviewHistoryBucket> findByEmailOrderByFirstTimestampDesc(String email, Pageable pageable);
+
+    InterviewHistoryBucket findFirstByEmailOrderByFirstTimestampAsc(String email);
+}
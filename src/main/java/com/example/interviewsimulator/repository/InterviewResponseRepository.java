@@ -3,5 +3,5 @@ package com.example.interviewsimulator.repository;
 import com.example.interviewsimulator.model.InterviewResponse;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface InterviewResponseRepository extends MongoRepository<InterviewResponse, String> {}
-
+public interface InterviewResponseRepository
+        extends MongoRepository<InterviewResponse, String>, InterviewResponseRepositoryCustom {}
@@ -0,0 +1,27 @@
+package com.example.interviewsimulator.repository;
+
+import com.example.interviewsimulator.model.HistoryPage;
+import com.example.interviewsimulator.model.InterviewResponse;
+
+import java.util.Date;
+import java.util.List;
+
+public interface InterviewResponseRepositoryCustom {
+
+    /**
+     * Keyset-paginated responses, newest first. {@code userEmail}, {@code role},
+     * {@code from} (inclusive) and {@code to} (exclusive) are optional filters;
+     * {@code cursor} is the {@code nextCursor} of the previous page, or null for the
+     * first page.
+     */
+    HistoryPage<InterviewResponse> findHistory(String userEmail, String role, Date from, Date to,
+                                               String cursor, int limit);
+
+    /**
+     * Replaces score, strengths, weaknesses and feedback of the given responses, matched
+     * by id, in one unordered bulk write.
+     *
+     * @return number of documents modified
+     */
+    int updateEvaluations(List<InterviewResponse> responses);
+}
@@ -0,0 +1,108 @@
+package com.example.interviewsimulator.repository;
+
+import com.example.interviewsimulator.model.HistoryPage;
+import com.example.interviewsimulator.model.InterviewResponse;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Keyset pagination over {@code interview_responses}. Pages are ordered by
+ * {@code (timestamp desc, _id desc)} and the cursor is the sort key of the last item,
+ * so every page is a bounded index range scan instead of a growing skip.
+ */
+public class InterviewResponseRepositoryCustomImpl implements InterviewResponseRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public InterviewResponseRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public HistoryPage<InterviewResponse> findHistory(String userEmail, String role, Date from, Date to,
+                                                      String cursor, int limit) {
+        Query query = historyQuery(userEmail, role, from, to, cursor, limit);
+        List<InterviewResponse> results = new ArrayList<>(mongoTemplate.find(query, InterviewResponse.class));
+
+        String nextCursor = null;
+        if (results.size() > limit) {
+            results = new ArrayList<>(results.subList(0, limit));
+            InterviewResponse last = results.get(limit - 1);
+            nextCursor = encodeCursor(last.getTimestamp(), last.getId());
+        }
+        return new HistoryPage<>(results, nextCursor);
+    }
+
+    @Override
+    public int updateEvaluations(List<InterviewResponse> responses) {
+        if (responses.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, InterviewResponse.class);
+        for (InterviewResponse response : responses) {
+            bulk.updateOne(Query.query(Criteria.where("_id").is(response.getId())), new Update()
+                .set("score", response.getScore())
+                .set("strengths", response.getStrengths())
+                .set("weaknesses", response.getWeaknesses())
+                .set("feedback", response.getFeedback()));
+        }
+        return bulk.execute().getModifiedCount();
+    }
+
+    // Fetches one extra row to learn whether another page exists
+    static Query historyQuery(String userEmail, String role, Date from, Date to, String cursor, int limit) {
+        List<Criteria> filters = new ArrayList<>();
+        if (userEmail != null) {
+            filters.add(Criteria.where("userEmail").is(userEmail));
+        }
+        if (role != null) {
+            filters.add(Criteria.where("role").is(role));
+        }
+        if (from != null) {
+            filters.add(Criteria.where("timestamp").gte(from));
+        }
+        if (to != null) {
+            filters.add(Criteria.where("timestamp").lt(to));
+        }
+        if (cursor != null) {
+            Object[] position = decodeCursor(cursor);
+            Date timestamp = (Date) position[0];
+            ObjectId id = (ObjectId) position[1];
+            filters.add(new Criteria().orOperator(
+                Criteria.where("timestamp").lt(timestamp),
+                Criteria.where("timestamp").is(timestamp).and("_id").lt(id)));
+        }
+
+        Query query = filters.isEmpty() ? new Query() : new Query(new Criteria().andOperator(filters));
+        return query.with(Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("_id"))).limit(limit + 1);
+    }
+
+    static String encodeCursor(Date timestamp, String id) {
+        String raw = timestamp.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Object[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new Object[] {
+                new Date(Long.parseLong(raw.substring(0, separator))),
+                new ObjectId(raw.substring(separator + 1))
+            };
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid history cursor", e);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.interviewsimulator.service;
+
+import com.example.interviewsimulator.model.AnswerRequest;
+import com.example.interviewsimulator.model.GeminiResponse;
+import com.example.interviewsimulator.model.InterviewResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Grades many answers for one role with as few model calls as possible. Answers are
+ * packed greedily, in order, into chunks that stay under
+ * {@code app.evaluation.batch.max-prompt-tokens} and {@code max-items}; each chunk is
+ * one {@code evaluation-batch} prompt and the chunks run concurrently. Every answer is
+ * tagged with an id, so the response can be matched back even if the model reorders
+ * or skips entries. Answers the model skipped, and whole chunks whose response cannot
+ * be parsed, are graded one by one with the regular {@code evaluation} prompt.
+ */
+@Service
+public class BatchEvaluationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchEvaluationService.class);
+
+    private final GeminiService geminiService;
+    private final PromptTemplates promptTemplates;
+    private final EvaluationParser evaluationParser;
+    private final int maxPromptTokens;
+    private final int maxItems;
+    private final int maxAnswers;
+
+    private final DistributionSummary chunkSizes;
+    private final Counter fallbackCounter;
+
+    public BatchEvaluationService(GeminiService geminiService, PromptTemplates promptTemplates,
+                                  EvaluationParser evaluationParser, MeterRegistry meterRegistry,
+                                  @Value("${app.evaluation.batch.max-prompt-tokens:6000}") int maxPromptTokens,
+                                  @Value("${app.evaluation.batch.max-items:10}") int maxItems,
+                                  @Value("${app.evaluation.batch.max-answers:50}") int maxAnswers) {
+        this.geminiService = geminiService;
+        this.promptTemplates = promptTemplates;
+        this.evaluationParser = evaluationParser;
+        this.maxPromptTokens = maxPromptTokens;
+        this.maxItems = maxItems;
+        this.maxAnswers = maxAnswers;
+        this.chunkSizes = DistributionSummary.builder("gemini.evaluation.batch.size")
+            .description("Answers graded per batch evaluation call")
+            .register(meterRegistry);
+        this.fallbackCounter = meterRegistry.counter("gemini.evaluation.batch.fallback");
+    }
+
+    /**
+     * Grades {@code answers} as answers to interview questions for {@code role}; the
+     * roles on the individual answers are ignored. The evaluations are returned in the
+     * order of {@code answers}.
+     *
+     * @throws IllegalArgumentException if there are no answers, more than
+     *         {@code app.evaluation.batch.max-answers}, or one lacks a question or answer
+     */
+    public CompletableFuture<List<GeminiResponse>> evaluate(String role, List<AnswerRequest> answers) {
+        if (role == null || role.isBlank()) {
+            throw new IllegalArgumentException("A role is required");
+        }
+        if (answers == null || answers.isEmpty()) {
+            throw new IllegalArgumentException("At least one answer is required");
+        }
+        if (answers.size() > maxAnswers) {
+            throw new IllegalArgumentException("At most " + maxAnswers + " answers can be graded at once");
+        }
+        for (AnswerRequest answer : answers) {
+            if (answer == null || answer.getQuestion() == null || answer.getAnswer() == null) {
+                throw new IllegalArgumentException("Every answer needs a question and an answer");
+            }
+        }
+
+        List<CompletableFuture<List<GeminiResponse>>> chunks = new ArrayList<>();
+        for (List<AnswerRequest> chunk : split(role, answers)) {
+            chunks.add(evaluateChunk(role, chunk));
+        }
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new))
+            .thenApply(done -> {
+                List<GeminiResponse> evaluations = new ArrayList<>(answers.size());
+                chunks.forEach(chunk -> evaluations.addAll(chunk.join()));
+                return evaluations;
+            });
+    }
+
+    /**
+     * Re-grades stored responses in place, batching those of the same role together in
+     * groups of at most {@code app.evaluation.batch.max-answers}. Only score, strengths,
+     * weaknesses and feedback are replaced. Responses without a role, question or answer
+     * (older documents) cannot be graded and are left as they are.
+     *
+     * @return the responses that were re-graded
+     */
+    public CompletableFuture<List<InterviewResponse>> regrade(List<InterviewResponse> responses) {
+        Map<String, List<InterviewResponse>> byRole = new LinkedHashMap<>();
+        for (InterviewResponse response : responses) {
+            if (isBlank(response.getRole()) || isBlank(response.getQuestion()) || isBlank(response.getAnswer())) {
+                continue;
+            }
+            byRole.computeIfAbsent(response.getRole(), r -> new ArrayList<>()).add(response);
+        }
+        List<InterviewResponse> regraded = new ArrayList<>();
+        List<CompletableFuture<Void>> groups = new ArrayList<>();
+        byRole.forEach((role, sameRole) -> {
+            for (int from = 0; from < sameRole.size(); from += maxAnswers) {
+                List<InterviewResponse> group = sameRole.subList(from, Math.min(from + maxAnswers, sameRole.size()));
+                List<AnswerRequest> answers = new ArrayList<>(group.size());
+                for (InterviewResponse response : group) {
+                    answers.add(answerRequest(role, response.getQuestion(), response.getAnswer()));
+                }
+                regraded.addAll(group);
+                groups.add(evaluate(role, answers).thenAccept(evaluations -> {
+                    for (int i = 0; i < group.size(); i++) {
+                        apply(group.get(i), evaluations.get(i));
+                    }
+                }));
+            }
+        });
+        return CompletableFuture.allOf(groups.toArray(CompletableFuture[]::new))
+            .thenApply(done -> regraded);
+    }
+
+    private static boolean isBlank(String text) {
+        return text == null || text.isBlank();
+    }
+
+    // Greedy, order-preserving packing; an answer that alone exceeds the budget gets its own chunk
+    List<List<AnswerRequest>> split(String role, List<AnswerRequest> answers) {
+        int preambleTokens = PromptTemplates.estimateTokens(renderBatch(role, 0, ""));
+        List<List<AnswerRequest>> chunks = new ArrayList<>();
+        List<AnswerRequest> current = new ArrayList<>();
+        int tokens = preambleTokens;
+        for (AnswerRequest answer : answers) {
+            int itemTokens = PromptTemplates.estimateTokens(renderItem(current.size() + 1, answer));
+            if (!current.isEmpty() && (current.size() >= maxItems || tokens + itemTokens > maxPromptTokens)) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                tokens = preambleTokens;
+            }
+            current.add(answer);
+            tokens += itemTokens;
+        }
+        chunks.add(current);
+        return chunks;
+    }
+
+    private CompletableFuture<List<GeminiResponse>> evaluateChunk(String role, List<AnswerRequest> chunk) {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < chunk.size(); i++) {
+            items.append('\n').append(renderItem(i + 1, chunk.get(i)));
+        }
+        chunkSizes.record(chunk.size());
+        return geminiService.evaluateBatchAsync(role, renderBatch(role, chunk.size(), items.toString()))
+            .thenApply(raw -> evaluationParser.parseBatch(raw.trim()))
+            .exceptionally(e -> {
+                Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                if (cause instanceof EvaluationParseException) {
+                    return Map.of();
+                }
+                throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+            })
+            .thenCompose(evaluations -> fillMissing(role, chunk, evaluations));
+    }
+
+    private CompletableFuture<List<GeminiResponse>> fillMissing(String role, List<AnswerRequest> chunk,
+                                                                Map<Integer, GeminiResponse> evaluations) {
+        List<CompletableFuture<GeminiResponse>> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            GeminiResponse evaluation = evaluations.get(i + 1);
+            if (evaluation != null) {
+                results.add(CompletableFuture.completedFuture(evaluation));
+            } else {
+                fallbackCounter.increment();
+                results.add(geminiService.evaluateAsync(role, renderSingle(role, chunk.get(i)))
+                    .thenApply(raw -> evaluationParser.parse(raw.trim())));
+            }
+        }
+        if (evaluations.size() < chunk.size()) {
+            logger.warn("Batch evaluation covered {} of {} answers; grading the rest one by one",
+                evaluations.size(), chunk.size());
+        }
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+            .thenApply(done -> results.stream().map(CompletableFuture::join).toList());
+    }
+
+    private String renderBatch(String role, int count, String items) {
+        return promptTemplates.render("evaluation-batch", Map.of("role", role, "count", count, "answers", items));
+    }
+
+    private String renderItem(int id, AnswerRequest answer) {
+        return promptTemplates.render("evaluation-batch-item", Map.of(
+            "id", id,
+            "question", answer.getQuestion(),
+            "answer", answer.getAnswer()));
+    }
+
+    private String renderSingle(String role, AnswerRequest answer) {
+        return promptTemplates.render("evaluation", Map.of(
+            "role", role,
+            "question", answer.getQuestion(),
+            "answer", answer.getAnswer()));
+    }
+
+    private static AnswerRequest answerRequest(String role, String question, String answer) {
+        AnswerRequest request = new AnswerRequest();
+        request.setRole(role);
+        request.setQuestion(question);
+        request.setAnswer(answer);
+        return request;
+    }
+
+    private static void apply(InterviewResponse response, GeminiResponse evaluation) {
+        response.setScore(evaluation.getScore());
+        response.setStrengths(evaluation.getStrengths());
+        response.setWeaknesses(evaluation.getWeaknesses());
+        response.setFeedback(evaluation.getFeedback());
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.interviewsimulator.service;
+
+import com.example.interviewsimulator.model.InterviewResponse;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds {@link UserStatsProjector} from a change stream on {@code interview_responses}
+ * instead of the in-process writer event, so the stats survive restarts and work when
+ * responses are inserted by another instance. Requires a replica set.
+ *
+ * <p>Only one instance tails the stream: the one holding the lease on the
+ * {@code user-stats} document in {@code projection_checkpoints}. The lease lasts
+ * {@code app.stats.projection.lease-ms} and is renewed every third of that; an instance
+ * that cannot renew stops tailing, and any other instance takes over once it expires.
+ *
+ * <p>The resume token of the last projected insert is stored on the same document,
+ * written only by the lease holder and only after the projection succeeded. A failed
+ * projection is retried with backoff before the stream moves on. Delivery is
+ * at-least-once; replays are harmless because projection is idempotent.
+ */
+@Component
+@ConditionalOnProperty(name = "app.stats.projection.source", havingValue = "change-stream")
+public class ChangeStreamProjectionSource implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeStreamProjectionSource.class);
+
+    static final String CHECKPOINT_COLLECTION = "projection_checkpoints";
+    static final String CHECKPOINT_ID = "user-stats";
+
+    private static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final UserStatsProjector projector;
+    private final long leaseMillis;
+    private final String owner = UUID.randomUUID().toString();
+
+    private ScheduledExecutorService leaseExecutor;
+    private volatile boolean running;
+    private volatile MessageListenerContainer container;
+
+    public ChangeStreamProjectionSource(MongoTemplate mongoTemplate, UserStatsProjector projector,
+                                        @Value("${app.stats.projection.lease-ms:30000}") long leaseMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.projector = projector;
+        this.leaseMillis = leaseMillis;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        leaseExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "user-stats-projection-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        leaseExecutor.scheduleWithFixedDelay(this::maintainLease, 0, leaseMillis / 3, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        leaseExecutor.shutdownNow();
+        stopTailing();
+        try {
+            // Let another instance take over right away instead of after the lease expires
+            checkpoints().updateOne(Filters.and(Filters.eq("_id", CHECKPOINT_ID), Filters.eq("owner", owner)),
+                Updates.set("leaseUntil", new Date(0)));
+        } catch (RuntimeException e) {
+            logger.warn("Could not release the user stats projection lease: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void maintainLease() {
+        try {
+            boolean holding = container != null;
+            if (holding ? renewLease() : acquireLease()) {
+                if (!holding) {
+                    startTailing();
+                }
+            } else if (holding) {
+                logger.warn("Lost the user stats projection lease; no longer tailing the change stream");
+                stopTailing();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("User stats projection lease check failed: {}", e.getMessage());
+        }
+    }
+
+    private boolean acquireLease() {
+        Date now = new Date();
+        try {
+            UpdateResult result = checkpoints().updateOne(
+                Filters.and(Filters.eq("_id", CHECKPOINT_ID),
+                    Filters.or(Filters.eq("owner", owner), Filters.lt("leaseUntil", now),
+                        Filters.exists("owner", false))),
+                Updates.combine(Updates.set("owner", owner),
+                    Updates.set("leaseUntil", new Date(now.getTime() + leaseMillis))),
+                new UpdateOptions().upsert(true));
+            return result.getMatchedCount() > 0 || result.getUpsertedId() != null;
+        } catch (MongoWriteException e) {
+            // Another instance holds the lease, so the upsert collided with its document
+            if (e.getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private boolean renewLease() {
+        return checkpoints().updateOne(Filters.and(Filters.eq("_id", CHECKPOINT_ID), Filters.eq("owner", owner)),
+            Updates.set("leaseUntil", new Date(System.currentTimeMillis() + leaseMillis))).getMatchedCount() > 0;
+    }
+
+    private synchronized void startTailing() {
+        if (!running || container != null) {
+            return;
+        }
+        BsonDocument resumeToken = loadResumeToken();
+        ChangeStreamRequest<InterviewResponse> request = ChangeStreamRequest.builder(this::onMessage)
+            .collection(mongoTemplate.getCollectionName(InterviewResponse.class))
+            .filter(Aggregation.newAggregation(Aggregation.match(Criteria.where("operationType").is("insert"))))
+            .resumeToken(resumeToken)
+            .build();
+        // A fresh container per lease, so tailing restarts from the stored checkpoint
+        MessageListenerContainer tailing = new DefaultMessageListenerContainer(mongoTemplate);
+        tailing.register(request, InterviewResponse.class,
+            e -> logger.error("User stats change stream failed", e));
+        tailing.start();
+        container = tailing;
+        logger.info("User stats projection tailing change stream{}", resumeToken != null ? " from checkpoint" : "");
+    }
+
+    private synchronized void stopTailing() {
+        if (container != null) {
+            container.stop();
+            container = null;
+        }
+    }
+
+    private void onMessage(Message<ChangeStreamDocument<Document>, InterviewResponse> message) {
+        InterviewResponse response = message.getBody();
+        if (response != null && !projectWithRetry(response)) {
+            return;
+        }
+        BsonDocument token = message.getRaw() != null ? message.getRaw().getResumeToken() : null;
+        if (token != null && !saveResumeToken(token)) {
+            logger.warn("User stats projection lease was taken over; no longer tailing the change stream");
+            leaseExecutor.execute(this::stopTailing);
+        }
+    }
+
+    // Holds the stream on a failing event rather than skip it; gives up only when tailing stops
+    private boolean projectWithRetry(InterviewResponse response) {
+        long delay = 100;
+        while (!projector.projectAll(List.of(response))) {
+            if (!running || container == null) {
+                return false;
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            delay = Math.min(delay * 2, MAX_RETRY_DELAY_MILLIS);
+        }
+        return true;
+    }
+
+    private BsonDocument loadResumeToken() {
+        Document checkpoint = checkpoints().find(Filters.eq("_id", CHECKPOINT_ID)).first();
+        Document token = checkpoint != null ? checkpoint.get("resumeToken", Document.class) : null;
+        return token != null ? token.toBsonDocument() : null;
+    }
+
+    // Fenced by the lease, so an instance that lost it cannot move the checkpoint
+    private boolean saveResumeToken(BsonDocument token) {
+        return checkpoints().updateOne(Filters.and(Filters.eq("_id", CHECKPOINT_ID), Filters.eq("owner", owner)),
+            Updates.set("resumeToken", token)).getMatchedCount() > 0;
+    }
+
+    private MongoCollection<Document> checkpoints() {
+        return mongoTemplate.getCollection(CHECKPOINT_COLLECTION);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.interviewsimulator.service;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal consecutive-failure circuit breaker. After {@code failureThreshold} failures
+ * in a row the breaker opens and rejects calls for {@code openDurationMillis}; it then
+ * lets a single probe through (half-open) and closes again if that probe succeeds.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private final LongSupplier clock;
+    private final Consumer<State> onTransition;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+    private volatile long openedAt;
+
+    public CircuitBreaker(int failureThreshold, long openDurationMillis,
+                          LongSupplier clock, Consumer<State> onTransition) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMillis = openDurationMillis;
+        this.clock = clock;
+        this.onTransition = onTransition;
+    }
+
+    /** Returns true if a call may proceed. In half-open state only one probe is admitted. */
+    public boolean tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openDurationMillis) {
+                return false;
+            }
+            transition(State.OPEN, State.HALF_OPEN);
+        }
+        return probeInFlight.compareAndSet(false, true);
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.get() == State.HALF_OPEN) {
+            transition(State.HALF_OPEN, State.CLOSED);
+        }
+        probeInFlight.set(false);
+    }
+
+    public void onFailure() {
+        if (state.get() == State.HALF_OPEN) {
+            open(State.HALF_OPEN);
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open(State.CLOSED);
+        }
+        probeInFlight.set(false);
+    }
+
+    /** Releases a half-open probe whose outcome says nothing about upstream health. */
+    public void onIgnored() {
+        probeInFlight.set(false);
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public long remainingOpenMillis() {
+        if (state.get() != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, openDurationMillis - (clock.getAsLong() - openedAt));
+    }
+
+    private void open(State from) {
+        openedAt = clock.getAsLong();
+        if (transition(from, State.OPEN)) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    private boolean transition(State from, State to) {
+        if (state.compareAndSet(from, to)) {
+            onTransition.accept(to);
+            return true;
+        }
+        return false;
+    }
+}
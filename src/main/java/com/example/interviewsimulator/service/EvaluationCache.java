@@ -0,0 +1,204 @@
+package com.example.interviewsimulator.service;
+
+import com.example.interviewsimulator.model.AnswerRequest;
+import com.example.interviewsimulator.model.CachedEvaluation;
+import com.example.interviewsimulator.model.GeminiResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Content-addressed store of evaluations, so a retried, double-submitted or pasted
+ * answer is graded by Gemini only once. The key is a SHA-256 of the role, question and
+ * answer (whitespace collapsed, case kept), the version of the {@code evaluation}
+ * prompt and the model the role's evaluation route uses; editing the prompt or
+ * switching models therefore starts from an empty cache.
+ *
+ * <p>Two tiers: a Caffeine LRU ({@code app.evaluation.cache.spec}) in front of the
+ * {@code evaluation_cache} collection, whose documents expire after
+ * {@code app.evaluation.cache.ttl} through a TTL index. Mongo hits are promoted into
+ * the LRU. The Mongo tier is read on {@code evaluationCacheExecutor}, so a lookup never
+ * blocks the caller. Cache failures are logged and treated as misses; they never fail
+ * an answer.
+ */
+@Service
+public class EvaluationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(EvaluationCache.class);
+
+    static final String PROMPT = "evaluation";
+
+    private final MongoTemplate mongoTemplate;
+    private final PromptTemplates promptTemplates;
+    private final GeminiRouter router;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Cache<String, CachedEvaluation> memory;
+    private final Executor lookupExecutor;
+
+    private final Counter memoryHits;
+    private final Counter mongoHits;
+    private final Counter misses;
+
+    public EvaluationCache(MongoTemplate mongoTemplate, PromptTemplates promptTemplates, GeminiRouter router,
+                           MeterRegistry meterRegistry,
+                           @Qualifier("evaluationCacheExecutor") Executor lookupExecutor,
+                           @Value("${app.evaluation.cache.enabled:true}") boolean enabled,
+                           @Value("${app.evaluation.cache.ttl:30d}") Duration ttl,
+                           @Value("${app.evaluation.cache.spec:maximumSize=10000,expireAfterWrite=1h}") String spec) {
+        this.mongoTemplate = mongoTemplate;
+        this.promptTemplates = promptTemplates;
+        this.router = router;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.memory = Caffeine.from(spec).recordStats().build();
+        this.lookupExecutor = lookupExecutor;
+        CaffeineCacheMetrics.monitor(meterRegistry, memory, "evaluation");
+
+        this.memoryHits = meterRegistry.counter("evaluation.cache.requests", "result", "hit", "tier", "memory");
+        this.mongoHits = meterRegistry.counter("evaluation.cache.requests", "result", "hit", "tier", "mongo");
+        this.misses = meterRegistry.counter("evaluation.cache.requests", "result", "miss", "tier", "none");
+        Gauge.builder("evaluation.cache.hit.ratio", this, EvaluationCache::hitRatio)
+            .description("Share of evaluation lookups answered from either cache tier")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Cache key of an answer.
+     *
+     * @throws IllegalArgumentException if the role, question or answer is missing
+     */
+    public String key(AnswerRequest request) {
+        if (request.getRole() == null || request.getQuestion() == null || request.getAnswer() == null) {
+            throw new IllegalArgumentException("An answer needs a role, a question and an answer");
+        }
+        return key(request.getRole(), request.getQuestion(), request.getAnswer(),
+            promptTemplates.version(PROMPT), router.route(GeminiTask.EVALUATION, request.getRole()).model());
+    }
+
+    static String key(String role, String question, String answer, String promptVersion, String model) {
+        StringBuilder material = new StringBuilder();
+        for (String part : new String[] {normalize(role), normalize(question), normalize(answer), promptVersion, model}) {
+            // Length prefixes keep the fields from running into each other
+            material.append(part.length()).append(':').append(part);
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(material.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // Case is kept: it can change the meaning of an answer (e.g. identifiers in code)
+    static String normalize(String text) {
+        return GeminiService.normalizePrompt(text);
+    }
+
+    /**
+     * The stored evaluation for {@code key}; every call returns a new object. Memory hits
+     * complete immediately, anything else once the Mongo tier has been read.
+     */
+    public CompletableFuture<Optional<GeminiResponse>> get(String key) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        CachedEvaluation cached = memory.getIfPresent(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return CompletableFuture.completedFuture(Optional.of(toResponse(cached)));
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> lookup(key), lookupExecutor);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Evaluation cache lookup rejected: {}", e.getMessage());
+            misses.increment();
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+    }
+
+    private Optional<GeminiResponse> lookup(String key) {
+        CachedEvaluation cached;
+        try {
+            cached = mongoTemplate.findById(key, CachedEvaluation.class);
+        } catch (RuntimeException e) {
+            logger.warn("Evaluation cache lookup failed: {}", e.getMessage());
+            cached = null;
+        }
+        // The TTL monitor only runs about once a minute, so expired documents can still be read
+        if (cached == null || cached.getExpiresAt() == null || !cached.getExpiresAt().after(new Date())) {
+            misses.increment();
+            return Optional.empty();
+        }
+        mongoHits.increment();
+        memory.put(key, cached);
+        return Optional.of(toResponse(cached));
+    }
+
+    /** Stores a fresh evaluation in both tiers, replacing any previous one. */
+    public void put(String key, GeminiResponse evaluation) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            CachedEvaluation cached = new CachedEvaluation();
+            cached.setKey(key);
+            cached.setScore(evaluation.getScore());
+            cached.setStrengths(withoutNulls(evaluation.getStrengths()));
+            cached.setWeaknesses(withoutNulls(evaluation.getWeaknesses()));
+            cached.setFeedback(evaluation.getFeedback());
+            Date now = new Date();
+            cached.setCreatedAt(now);
+            cached.setExpiresAt(new Date(now.getTime() + ttl.toMillis()));
+            memory.put(key, cached);
+            mongoTemplate.save(cached);
+        } catch (RuntimeException e) {
+            logger.warn("Evaluation cache write failed: {}", e.getMessage());
+        }
+    }
+
+    double hitRatio() {
+        double hits = memoryHits.count() + mongoHits.count();
+        double total = hits + misses.count();
+        return total == 0 ? 0 : hits / total;
+    }
+
+    // Parsed evaluations can carry null lists or items; the cache stores neither
+    private static List<String> withoutNulls(List<String> items) {
+        List<String> copy = new ArrayList<>();
+        if (items != null) {
+            for (String item : items) {
+                if (item != null) {
+                    copy.add(item);
+                }
+            }
+        }
+        return copy;
+    }
+
+    private static GeminiResponse toResponse(CachedEvaluation cached) {
+        return new GeminiResponse(cached.getScore(), cached.getStrengths(), cached.getWeaknesses(), cached.getFeedback());
+    }
+}
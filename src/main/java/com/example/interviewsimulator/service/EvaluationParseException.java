@@ -0,0 +1,11 @@
+package com.example.interviewsimulator.service;
+
+/**
+ * Thrown when a Gemini evaluation contains no recognizable {@code GeminiResponse}.
+ */
+public class EvaluationParseException extends RuntimeException {
+
+    public EvaluationParseException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.interviewsimulator.service;
+
+import com.example.interviewsimulator.model.GeminiResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns a Gemini evaluation into a {@link GeminiResponse}. Evaluations are requested in
+ * JSON mode, so the text is normally a bare object and the first parse succeeds. For
+ * anything else (markdown fences, prose around the object, trailing commas) the text is
+ * scanned and a streaming parse is attempted from each {@code {} in turn; the parser
+ * stops at the end of the object, so trailing prose is ignored.
+ *
+ * <p>Batch evaluations are parsed the same way from each {@code [} in turn; every
+ * element of the array that has an {@code id} and a feedback becomes one evaluation.
+ *
+ * <p>The {@link ObjectReader}s are built once and shared; they are immutable and thread-safe.
+ */
+@Component
+public class EvaluationParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(EvaluationParser.class);
+
+    // Bounds the work spent on a response that contains many braces but no evaluation
+    private static final int MAX_CANDIDATES = 16;
+
+    private final ObjectReader reader;
+    private final ObjectReader treeReader;
+    private final Counter recoveredCounter;
+    private final Counter failureCounter;
+
+    public EvaluationParser(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.reader = objectMapper.readerFor(GeminiResponse.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .with(JsonReadFeature.ALLOW_TRAILING_COMMA)
+            .with(JsonReadFeature.ALLOW_SINGLE_QUOTES)
+            .with(JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES)
+            .with(JsonReadFeature.ALLOW_NON_NUMERIC_NUMBERS);
+        this.treeReader = reader.forType(JsonNode.class);
+        this.recoveredCounter = meterRegistry.counter("gemini.evaluation.parse", "outcome", "recovered");
+        this.failureCounter = meterRegistry.counter("gemini.evaluation.parse", "outcome", "failed");
+    }
+
+    /**
+     * @throws EvaluationParseException if no evaluation object can be found in {@code raw}
+     */
+    public GeminiResponse parse(String raw) {
+        char[] text = raw.toCharArray();
+        int attempts = 0;
+        for (int start = indexOf(text, '{', 0); start >= 0 && attempts < MAX_CANDIDATES;
+             start = indexOf(text, '{', start + 1), attempts++) {
+            GeminiResponse evaluation = tryParse(text, start);
+            if (evaluation != null) {
+                if (attempts > 0 || !raw.trim().startsWith("{")) {
+                    recoveredCounter.increment();
+                }
+                return normalize(evaluation);
+            }
+        }
+        failureCounter.increment();
+        logger.warn("Could not find an evaluation in Gemini response ({} chars)", raw.length());
+        throw new EvaluationParseException("Gemini returned an evaluation that could not be parsed");
+    }
+
+    /**
+     * Parses a batch evaluation into evaluations keyed by answer id, in response order.
+     * Elements without an id or a feedback are dropped, so the result may cover fewer
+     * answers than were asked for.
+     *
+     * @throws EvaluationParseException if no array of evaluations can be found in {@code raw}
+     */
+    public Map<Integer, GeminiResponse> parseBatch(String raw) {
+        char[] text = raw.toCharArray();
+        int attempts = 0;
+        for (int start = indexOf(text, '[', 0); start >= 0 && attempts < MAX_CANDIDATES;
+             start = indexOf(text, '[', start + 1), attempts++) {
+            Map<Integer, GeminiResponse> evaluations = tryParseBatch(text, start);
+            if (evaluations != null) {
+                if (attempts > 0 || !raw.trim().startsWith("[")) {
+                    recoveredCounter.increment();
+                }
+                return evaluations;
+            }
+        }
+        failureCounter.increment();
+        logger.warn("Could not find a batch evaluation in Gemini response ({} chars)", raw.length());
+        throw new EvaluationParseException("Gemini returned a batch evaluation that could not be parsed");
+    }
+
+    private Map<Integer, GeminiResponse> tryParseBatch(char[] text, int start) {
+        try (JsonParser parser = treeReader.createParser(text, start, text.length - start)) {
+            JsonNode array = treeReader.readTree(parser);
+            if (array == null || !array.isArray()) {
+                return null;
+            }
+            Map<Integer, GeminiResponse> evaluations = new LinkedHashMap<>();
+            for (JsonNode element : array) {
+                if (!element.isObject() || !element.path("id").canConvertToInt()) {
+                    continue;
+                }
+                GeminiResponse evaluation = reader.readValue(element);
+                if (evaluation != null && evaluation.getFeedback() != null) {
+                    evaluations.putIfAbsent(element.get("id").asInt(), normalize(evaluation));
+                }
+            }
+            return evaluations.isEmpty() ? null : evaluations;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private GeminiResponse tryParse(char[] text, int start) {
+        try (JsonParser parser = reader.createParser(text, start, text.length - start)) {
+            GeminiResponse evaluation = reader.readValue(parser);
+            return evaluation != null && evaluation.getFeedback() != null ? evaluation : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static GeminiResponse normalize(GeminiResponse evaluation) {
+        evaluation.setScore(Math.max(0, Math.min(10, evaluation.getScore())));
+        if (evaluation.getStrengths() == null) {
+            evaluation.setStrengths(List.of());
+        }
+        if (evaluation.getWeaknesses() == null) {
+            evaluation.setWeaknesses(List.of());
+        }
+        return evaluation;
+    }
+
+    private static int indexOf(char[] text, char c, int from) {
+        for (int i = from; i < text.length; i++) {
+            if (text[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
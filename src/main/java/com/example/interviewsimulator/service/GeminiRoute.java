@@ -0,0 +1,27 @@
+package com.example.interviewsimulator.service;
+
+/**
+ * Resolved model configuration for one task, optionally specialised for a role.
+ * {@code maxOutputTokens} and {@code temperature} are null when the model default
+ * applies; costs are in USD per million tokens and zero when unknown. {@code hedgeModel}
+ * is the model hedged requests go to, null for the route's own model.
+ */
+public record GeminiRoute(GeminiTask task, String model, int timeoutMillis, Integer maxOutputTokens,
+                          Float temperature, double inputCostPerMillion, double outputCostPerMillion,
+                          String hedgeModel) {
+
+    /**
+     * The route a hedged copy of a call is sent on: the same route on
+     * {@code hedgeModel}, priced like the original.
+     */
+    public GeminiRoute hedge() {
+        return hedgeModel == null || hedgeModel.equals(model) ? this
+            : new GeminiRoute(task, hedgeModel, timeoutMillis, maxOutputTokens, temperature,
+                inputCostPerMillion, outputCostPerMillion, null);
+    }
+
+    /** Estimated cost in USD of a call with the given token counts. */
+    public double cost(long promptTokens, long responseTokens) {
+        return (promptTokens * inputCostPerMillion + responseTokens * outputCostPerMillion) / 1_000_000;
+    }
+}
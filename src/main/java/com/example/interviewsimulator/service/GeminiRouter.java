@@ -0,0 +1,89 @@
+package com.example.interviewsimulator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Maps a {@link GeminiTask}, and optionally the interview role, to the model and
+ * generation parameters to use. Every setting is looked up first as
+ * {@code gemini.routes.<task>.roles.<role>.<setting>}, then as
+ * {@code gemini.routes.<task>.<setting>}, then falls back to the global
+ * {@code gemini.model} and {@code gemini.api.timeout}. Roles are matched in lower case
+ * with every run of other characters than letters and digits replaced by {@code -},
+ * so "UI/UX Designer" is {@code ui-ux-designer}.
+ *
+ * <p>Settings: {@code model}, {@code timeout-ms}, {@code max-output-tokens},
+ * {@code temperature}, {@code input-cost-per-million},
+ * {@code output-cost-per-million} and {@code hedge-model}, the model hedged requests
+ * go to (see {@code gemini.hedging.*}). Resolved routes are cached; roles come from
+ * requests, so the cache is bounded.
+ */
+@Component
+public class GeminiRouter {
+
+    private static final String PREFIX = "gemini.routes.";
+
+    private final Environment environment;
+    private final Cache<String, GeminiRoute> routes = Caffeine.newBuilder().maximumSize(1000).build();
+
+    public GeminiRouter(Environment environment) {
+        this.environment = environment;
+    }
+
+    /** Route for {@code task} without any role override. */
+    public GeminiRoute route(GeminiTask task) {
+        return route(task, null);
+    }
+
+    /** Route for {@code task} when working for {@code role}; a null role means no override. */
+    public GeminiRoute route(GeminiTask task, String role) {
+        String roleKey = role == null ? null : roleKey(role);
+        return routes.get(task.key() + '|' + (roleKey == null ? "" : roleKey), k -> resolve(task, roleKey));
+    }
+
+    private GeminiRoute resolve(GeminiTask task, String roleKey) {
+        String model = setting(task, roleKey, "model", String.class);
+        Integer timeout = setting(task, roleKey, "timeout-ms", Integer.class);
+        Double inputCost = setting(task, roleKey, "input-cost-per-million", Double.class);
+        Double outputCost = setting(task, roleKey, "output-cost-per-million", Double.class);
+        return new GeminiRoute(task,
+            model != null ? model : environment.getProperty("gemini.model", "gemini-1.5-flash"),
+            timeout != null ? timeout : environment.getProperty("gemini.api.timeout", Integer.class, 30000),
+            setting(task, roleKey, "max-output-tokens", Integer.class),
+            setting(task, roleKey, "temperature", Float.class),
+            inputCost != null ? inputCost : 0,
+            outputCost != null ? outputCost : 0,
+            setting(task, roleKey, "hedge-model", String.class));
+    }
+
+    private <T> T setting(GeminiTask task, String roleKey, String name, Class<T> type) {
+        if (roleKey != null) {
+            T value = environment.getProperty(PREFIX + task.key() + ".roles." + roleKey + "." + name, type);
+            if (value != null) {
+                return value;
+            }
+        }
+        return environment.getProperty(PREFIX + task.key() + "." + name, type);
+    }
+
+    static String roleKey(String role) {
+        StringBuilder key = new StringBuilder(role.length());
+        boolean dash = false;
+        for (int i = 0; i < role.length(); i++) {
+            char c = Character.toLowerCase(role.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                if (dash && key.length() > 0) {
+                    key.append('-');
+                }
+                key.append(c);
+                dash = false;
+            } else {
+                dash = true;
+            }
+        }
+        return key.toString();
+    }
+}
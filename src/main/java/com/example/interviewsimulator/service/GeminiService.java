@@ -1,43 +1,705 @@
 package com.example.interviewsimulator.service;
 
+import com.example.interviewsimulator.config.CacheConfig;
 import com.google.genai.Client;
+import com.google.genai.ResponseStream;
+import com.google.genai.errors.ClientException;
+import com.google.genai.errors.GenAiIOException;
+import com.google.genai.errors.ServerException;
+import com.google.genai.types.GenerateContentConfig;
 import com.google.genai.types.GenerateContentResponse;
+import com.google.genai.types.GenerateContentResponseUsageMetadata;
+import com.google.genai.types.HttpOptions;
+import com.google.genai.types.Schema;
+import com.google.genai.types.Type;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 @Service
 public class GeminiService {
 
+    private static final Logger logger = LoggerFactory.getLogger(GeminiService.class);
+
+    // JSON mode for evaluations: the model must return exactly the GeminiResponse shape
+    static final GenerateContentConfig EVALUATION_CONFIG = GenerateContentConfig.builder()
+        .responseMimeType("application/json")
+        .responseSchema(Schema.builder()
+            .type(Type.Known.OBJECT)
+            .properties(Map.of(
+                "score", Schema.builder().type(Type.Known.INTEGER).minimum(0.0).maximum(10.0).build(),
+                "strengths", Schema.builder().type(Type.Known.ARRAY)
+                    .items(Schema.builder().type(Type.Known.STRING)).build(),
+                "weaknesses", Schema.builder().type(Type.Known.ARRAY)
+                    .items(Schema.builder().type(Type.Known.STRING)).build(),
+                "feedback", Schema.builder().type(Type.Known.STRING).build()))
+            .required("score", "strengths", "weaknesses", "feedback"))
+        .build();
+
+    // JSON mode for batch evaluations: an array of GeminiResponse objects tagged with the answer id
+    static final GenerateContentConfig BATCH_EVALUATION_CONFIG = GenerateContentConfig.builder()
+        .responseMimeType("application/json")
+        .responseSchema(Schema.builder()
+            .type(Type.Known.ARRAY)
+            .items(Schema.builder()
+                .type(Type.Known.OBJECT)
+                .properties(Map.of(
+                    "id", Schema.builder().type(Type.Known.INTEGER).build(),
+                    "score", Schema.builder().type(Type.Known.INTEGER).minimum(0.0).maximum(10.0).build(),
+                    "strengths", Schema.builder().type(Type.Known.ARRAY)
+                        .items(Schema.builder().type(Type.Known.STRING)).build(),
+                    "weaknesses", Schema.builder().type(Type.Known.ARRAY)
+                        .items(Schema.builder().type(Type.Known.STRING)).build(),
+                    "feedback", Schema.builder().type(Type.Known.STRING).build()))
+                .required("id", "score", "strengths", "weaknesses", "feedback")))
+        .build();
+
     @Value("${gemini.api.key}")
     private String apiKey;
 
-    @Value("${gemini.model:gemini-1.5-flash}")
-    private String modelName;
+    // Overrides the Gemini endpoint, e.g. to point at a local fake server; empty uses the SDK default
+    @Value("${gemini.api.base-url:}")
+    private String baseUrl;
+
+    @Value("${gemini.api.timeout:30000}")
+    private int timeoutMillis;
+
+    @Value("${gemini.api.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${app.ai.feedback.retry-attempts:3}")
+    private int evaluationRetries;
+
+    @Value("${gemini.api.retry.base-delay-ms:200}")
+    private long retryBaseDelayMillis;
+
+    @Value("${gemini.api.retry.max-delay-ms:2000}")
+    private long retryMaxDelayMillis;
+
+    // Budget for a call including all retries and backoff; kept below
+    // spring.mvc.async.request-timeout so the caller still gets a proper 503
+    @Value("${gemini.api.total-timeout-ms:50000}")
+    private long totalTimeoutMillis;
+
+    @Value("${gemini.circuit-breaker.failure-threshold:5}")
+    private int breakerFailureThreshold;
+
+    @Value("${gemini.circuit-breaker.open-duration-ms:30000}")
+    private long breakerOpenDurationMillis;
+
+    @Value("${gemini.single-flight.enabled:true}")
+    private boolean singleFlightEnabled;
+
+    @Value("${gemini.hedging.enabled:false}")
+    private boolean hedgingEnabled;
+
+    @Value("${gemini.hedging.percentile:0.95}")
+    private double hedgePercentile;
+
+    @Value("${gemini.hedging.min-delay-ms:200}")
+    private long hedgeMinDelayMillis;
 
+    @Value("${gemini.hedging.window:256}")
+    private int hedgeWindow;
+
+    @Value("${gemini.hedging.min-samples:20}")
+    private int hedgeMinSamples;
+
+    @Value("${gemini.hedging.budget-percent:5}")
+    private double hedgeBudgetPercent;
+
+    @Autowired
+    @Qualifier("geminiExecutor")
+    private Executor geminiExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private GeminiRouter router;
+
+    // Client with the default gemini.api.timeout; routes with another timeout get their own
     private Client client;
 
+    private final Map<Integer, Client> clientsByTimeout = new ConcurrentHashMap<>();
+
+    private CircuitBreaker circuitBreaker;
+
+    // Identical prompts in flight at the same time share one upstream call
+    private SingleFlight<FlightKey, String> singleFlight;
+
+    // Latency percentiles and budget for hedged requests; null unless hedging is enabled
+    private Hedger hedger;
+
+    private Counter retryCounter;
+
+    private Counter rejectedCounter;
+
     @PostConstruct
     public void init() {
+        client = buildClient(timeoutMillis);
+
+        circuitBreaker = new CircuitBreaker(breakerFailureThreshold, breakerOpenDurationMillis,
+            System::currentTimeMillis,
+            state -> {
+                logger.warn("Gemini circuit breaker is now {}", state);
+                meterRegistry.counter("gemini.circuit.transitions", "state", state.name()).increment();
+            });
+        Gauge.builder("gemini.circuit.state", circuitBreaker, cb -> cb.getState().ordinal())
+            .description("Gemini circuit breaker state (0=closed, 1=open, 2=half-open)")
+            .register(meterRegistry);
+        singleFlight = new SingleFlight<>(key ->
+            meterRegistry.counter("gemini.calls.coalesced", "operation", key.operation()).increment());
+        Gauge.builder("gemini.calls.inflight", singleFlight, SingleFlight::size)
+            .description("Distinct Gemini prompts currently in flight")
+            .register(meterRegistry);
+        if (hedgingEnabled) {
+            hedger = new Hedger(hedgePercentile, hedgeMinDelayMillis, hedgeWindow, hedgeMinSamples, hedgeBudgetPercent);
+        }
+        retryCounter = meterRegistry.counter("gemini.calls.retries");
+        rejectedCounter = meterRegistry.counter("gemini.calls.rejected");
+    }
+
+    private Client buildClient(int timeout) {
         try {
-            System.setProperty("GOOGLE_API_KEY", apiKey);
-            client = new Client();
+            HttpOptions.Builder httpOptions = HttpOptions.builder().timeout(timeout);
+            if (baseUrl != null && !baseUrl.isBlank()) {
+                httpOptions.baseUrl(baseUrl);
+            }
+            return Client.builder()
+                .apiKey(apiKey)
+                .httpOptions(httpOptions.build())
+                .build();
         } catch (Exception e) {
             throw new RuntimeException("Failed to initialize Gemini AI client", e);
         }
     }
 
+    /**
+     * Sends a free-form prompt to Gemini and returns the generated text. Each attempt is
+     * bounded by the route's timeout; transient failures are retried up to
+     * {@code gemini.api.max-retries} times with jittered exponential backoff. A call made
+     * while an identical prompt is already in flight waits for that call instead of
+     * sending its own.
+     *
+     * @throws GeminiUnavailableException if the breaker is open or all attempts failed
+     */
     public String askGemini(String userInput) {
+        GeminiRoute route = router.route(GeminiTask.FREEFORM);
+        return coalesce("ask", route, userInput, () -> generateWithRetries("ask", route, maxRetries, userInput, null, () -> false));
+    }
+
+    /**
+     * Non-blocking variant of {@link #askGemini(String)}. The model round trip runs on
+     * the bounded {@code geminiExecutor}, so the calling request thread is free as soon
+     * as the future is returned. With {@code gemini.hedging.enabled} this and the other
+     * non-streaming async calls are hedged: a call still running after the recent
+     * latency percentile is sent a second time and the first answer wins.
+     */
+    public CompletableFuture<String> askGeminiAsync(String userInput) {
+        return generateAsync("ask", router.route(GeminiTask.FREEFORM), maxRetries, userInput, null);
+    }
+
+    /**
+     * Generates interview questions for {@code role} on the {@link GeminiTask#QUESTION}
+     * route, which is meant to be the fastest and cheapest model.
+     */
+    public CompletableFuture<String> generateQuestionAsync(String role, String prompt) {
+        return generateAsync("question", router.route(GeminiTask.QUESTION, role), maxRetries, prompt, null);
+    }
+
+    /**
+     * Asynchronously asks Gemini to grade an answer for {@code role}. Runs on the
+     * {@link GeminiTask#EVALUATION} route in JSON mode with a response schema matching
+     * {@code GeminiResponse}, and is retried up to {@code app.ai.feedback.retry-attempts}
+     * times, since losing an evaluation costs the candidate their answer.
+     */
+    public CompletableFuture<String> evaluateAsync(String role, String prompt) {
+        return generateAsync("evaluate", router.route(GeminiTask.EVALUATION, role), evaluationRetries,
+            prompt, EVALUATION_CONFIG);
+    }
+
+    /**
+     * Asynchronously asks Gemini to grade several answers in one call. Same as
+     * {@link #evaluateAsync(String, String)} but the response is a JSON array with one
+     * evaluation per answer, each carrying the id the prompt gave that answer.
+     */
+    public CompletableFuture<String> evaluateBatchAsync(String role, String prompt) {
+        return generateAsync("evaluate-batch", router.route(GeminiTask.EVALUATION, role), evaluationRetries,
+            prompt, BATCH_EVALUATION_CONFIG);
+    }
+
+    /**
+     * Streaming variant of {@link #evaluateAsync(String, String)}; chunks are pieces of
+     * the JSON evaluation.
+     */
+    public CompletableFuture<String> streamEvaluationAsync(String role, String prompt, Consumer<String> onChunk) {
+        GeminiRoute route = router.route(GeminiTask.EVALUATION, role);
+        return submit(() -> stream("stream-evaluate", route, prompt, EVALUATION_CONFIG, onChunk));
+    }
+
+    /**
+     * Streaming variant of {@link #generateQuestionAsync(String, String)}; chunks are
+     * delivered on a {@code geminiExecutor} thread.
+     */
+    public CompletableFuture<String> streamQuestionAsync(String role, String prompt, Consumer<String> onChunk) {
+        GeminiRoute route = router.route(GeminiTask.QUESTION, role);
+        return submit(() -> stream("stream-question", route, prompt, null, onChunk));
+    }
+
+    /**
+     * Cached variant of {@link #askGeminiAsync(String)} for prompts whose answer does not
+     * need to vary between calls (free-form {@code /ask} questions). Responses are kept
+     * in the {@code questions} cache keyed by the trimmed prompt; failures are not cached.
+     */
+    @Cacheable(cacheNames = CacheConfig.QUESTIONS, key = "#userInput.trim()")
+    public CompletableFuture<String> askGeminiCachedAsync(String userInput) {
+        return askGeminiAsync(userInput);
+    }
+
+    /**
+     * Streams the model output through the SDK's streaming generate-content call,
+     * handing each text chunk to {@code onChunk} as soon as it arrives. Returns the
+     * full concatenated text once the stream is exhausted. A failed attempt is only
+     * retried if nothing has been streamed to the caller yet.
+     */
+    public String streamGemini(String userInput, Consumer<String> onChunk) {
+        return stream("stream", router.route(GeminiTask.FREEFORM), userInput, null, onChunk);
+    }
+
+    /**
+     * Non-blocking variant of {@link #streamGemini(String, Consumer)}; chunks are
+     * delivered on a {@code geminiExecutor} thread.
+     */
+    public CompletableFuture<String> streamGeminiAsync(String userInput, Consumer<String> onChunk) {
+        return submit(() -> streamGemini(userInput, onChunk));
+    }
+
+    private CompletableFuture<String> generateAsync(String operation, GeminiRoute route, int retries, String prompt,
+                                                    GenerateContentConfig baseConfig) {
+        if (hedgingEnabled) {
+            return coalesceAsync(operation, route, prompt, () -> hedged(operation, route, retries,
+                (attemptRoute, attemptRetries) -> cancelled -> generateWithRetries(operation, attemptRoute,
+                    attemptRetries, prompt, baseConfig, cancelled)));
+        }
+        return coalesceAsync(operation, route, prompt,
+            () -> submit(() -> generateWithRetries(operation, route, retries, prompt, baseConfig, () -> false)));
+    }
+
+    // A saturated executor fails the future like any other outage, so callers map it to a 503
+    private CompletableFuture<String> submit(Supplier<String> call) {
         try {
-            GenerateContentResponse response = client.models.generateContent(
-                modelName,
-                userInput,
-                null
-            );
-            return response.text();
-        } catch (Exception e) {
-            return "Error communicating with Gemini AI: " + e.getMessage();
+            return CompletableFuture.supplyAsync(call, geminiExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(saturated(e));
+        }
+    }
+
+    private static GeminiUnavailableException saturated(RejectedExecutionException e) {
+        return new GeminiUnavailableException("Gemini executor is saturated", e);
+    }
+
+    private String generateWithRetries(String operation, GeminiRoute route, int retries, String prompt,
+                                       GenerateContentConfig baseConfig, BooleanSupplier cancelled) {
+        GenerateContentConfig config = config(route, baseConfig);
+        return callWithRetries(operation, route, retries, () -> generate(operation, route, prompt, config),
+            () -> true, cancelled);
+    }
+
+    /**
+     * Runs {@code call} on {@code route} and, if it has not completed after the hedge
+     * delay for this operation and model and the hedge budget allows, a second copy on
+     * {@link GeminiRoute#hedge()}. The first copy to succeed wins and the other is
+     * cancelled; the call only fails once every copy has failed, with the first failure.
+     * Only the first copy retries, so a hedge costs exactly one extra model call.
+     */
+    private CompletableFuture<String> hedged(String operation, GeminiRoute route, int retries,
+                                             BiFunction<GeminiRoute, Integer, Function<BooleanSupplier, String>> call) {
+        String latencyKey = operation + '|' + route.model();
+        long delay = hedger.delayMillis(latencyKey);
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        List<Attempt> attempts = new CopyOnWriteArrayList<>();
+        AtomicInteger running = new AtomicInteger(1);
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        long start = System.nanoTime();
+
+        Consumer<Throwable> onFailure = e -> {
+            firstFailure.compareAndSet(null, e);
+            if (running.decrementAndGet() == 0) {
+                result.completeExceptionally(firstFailure.get());
+            }
+        };
+        Attempt primary = new Attempt(call.apply(route, retries));
+        attempts.add(primary);
+        primary.future.whenComplete((value, e) -> {
+            if (e != null) {
+                onFailure.accept(e);
+            } else if (win(result, primary, value, attempts, running)) {
+                hedger.recordLatency(latencyKey, millisSince(start));
+            }
+        });
+        try {
+            geminiExecutor.execute(primary::run);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(saturated(e));
+        }
+        hedger.onCall();
+
+        if (delay >= 0) {
+            Executor afterDelay = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, Runnable::run);
+            afterDelay.execute(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                if (!hedger.tryAcquire()) {
+                    meterRegistry.counter("gemini.hedges", "operation", operation, "outcome", "denied").increment();
+                    return;
+                }
+                // Nothing left to hedge if the primary finished in the meantime
+                if (running.getAndUpdate(n -> n == 0 ? 0 : n + 1) == 0) {
+                    hedger.refund();
+                    return;
+                }
+                Attempt hedge = new Attempt(call.apply(route.hedge(), 0));
+                attempts.add(hedge);
+                hedge.future.whenComplete((value, e) -> {
+                    if (e != null) {
+                        onFailure.accept(e);
+                    } else if (win(result, hedge, value, attempts, running)) {
+                        // The cancelled primary took at least this long
+                        hedger.recordLatency(latencyKey, millisSince(start));
+                        meterRegistry.counter("gemini.hedges", "operation", operation, "outcome", "won").increment();
+                    }
+                });
+                meterRegistry.counter("gemini.hedges", "operation", operation, "outcome", "sent").increment();
+                logger.debug("Hedging {} on {} after {} ms", operation, route.hedge().model(), delay);
+                try {
+                    geminiExecutor.execute(hedge::run);
+                } catch (RejectedExecutionException e) {
+                    hedger.refund();
+                    hedge.future.completeExceptionally(e);
+                }
+            });
+        }
+        return result;
+    }
+
+    private static long millisSince(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static boolean win(CompletableFuture<String> result, Attempt winner, String value,
+                               List<Attempt> attempts, AtomicInteger running) {
+        running.decrementAndGet();
+        if (!result.complete(value)) {
+            return false;
+        }
+        for (Attempt attempt : attempts) {
+            if (attempt != winner) {
+                attempt.cancel();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * One copy of a hedged call. Cancelling it stops further retries and interrupts the
+     * thread running it, which aborts the blocking HTTP exchange; a copy that has not
+     * started yet never runs.
+     */
+    private static final class Attempt {
+
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        private final Function<BooleanSupplier, String> call;
+        private Thread runner;
+        private boolean cancelled;
+
+        Attempt(Function<BooleanSupplier, String> call) {
+            this.call = call;
+        }
+
+        void run() {
+            synchronized (this) {
+                if (cancelled) {
+                    future.cancel(false);
+                    return;
+                }
+                runner = Thread.currentThread();
+            }
+            try {
+                future.complete(call.apply(this::isCancelled));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                    // Do not leak a late interrupt into the next task on this pool thread
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+    }
+
+    // Streaming calls are not coalesced: every caller needs its own chunks as they arrive
+    private String coalesce(String operation, GeminiRoute route, String prompt, Supplier<String> call) {
+        return singleFlightEnabled ? singleFlight.call(flightKey(operation, route, prompt), call) : call.get();
+    }
+
+    private CompletableFuture<String> coalesceAsync(String operation, GeminiRoute route, String prompt,
+                                                    Supplier<CompletableFuture<String>> call) {
+        return singleFlightEnabled ? singleFlight.execute(flightKey(operation, route, prompt), call) : call.get();
+    }
+
+    private static FlightKey flightKey(String operation, GeminiRoute route, String prompt) {
+        return new FlightKey(operation, route, normalizePrompt(prompt));
+    }
+
+    // Prompts that differ only in surrounding or repeated whitespace are the same request
+    static String normalizePrompt(String prompt) {
+        StringBuilder out = new StringBuilder(prompt.length());
+        boolean space = false;
+        for (int i = 0; i < prompt.length(); i++) {
+            char c = prompt.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = out.length() > 0;
+            } else {
+                if (space) {
+                    out.append(' ');
+                    space = false;
+                }
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private record FlightKey(String operation, GeminiRoute route, String prompt) {}
+
+    // The route's generation parameters layered over the task's base config (JSON mode etc.)
+    static GenerateContentConfig config(GeminiRoute route, GenerateContentConfig baseConfig) {
+        if (route.maxOutputTokens() == null && route.temperature() == null) {
+            return baseConfig;
+        }
+        GenerateContentConfig.Builder builder =
+            baseConfig == null ? GenerateContentConfig.builder() : baseConfig.toBuilder();
+        if (route.maxOutputTokens() != null) {
+            builder.maxOutputTokens(route.maxOutputTokens());
+        }
+        if (route.temperature() != null) {
+            builder.temperature(route.temperature());
+        }
+        return builder.build();
+    }
+
+    private Client clientFor(GeminiRoute route) {
+        return route.timeoutMillis() == timeoutMillis ? client
+            : clientsByTimeout.computeIfAbsent(route.timeoutMillis(), this::buildClient);
+    }
+
+    private String stream(String operation, GeminiRoute route, String prompt, GenerateContentConfig baseConfig,
+                          Consumer<String> onChunk) {
+        GenerateContentConfig config = config(route, baseConfig);
+        StringBuilder full = new StringBuilder();
+        return callWithRetries(operation, route, maxRetries, () -> {
+            // Usage is cumulative across chunks, so only the last reported value is recorded
+            AtomicReference<GenerateContentResponse> last = new AtomicReference<>();
+            try (ResponseStream<GenerateContentResponse> stream =
+                     clientFor(route).models.generateContentStream(route.model(), prompt, config)) {
+                for (GenerateContentResponse chunk : stream) {
+                    if (chunk.usageMetadata().isPresent()) {
+                        last.set(chunk);
+                    }
+                    String text = chunk.text();
+                    if (text != null && !text.isEmpty()) {
+                        full.append(text);
+                        onChunk.accept(text);
+                    }
+                }
+            }
+            if (last.get() != null) {
+                recordUsage(operation, route, last.get());
+            }
+            return full.toString();
+        }, () -> full.length() == 0, () -> false);
+    }
+
+    private String generate(String operation, GeminiRoute route, String prompt, GenerateContentConfig config) {
+        GenerateContentResponse response = clientFor(route).models.generateContent(route.model(), prompt, config);
+        recordUsage(operation, route, response);
+        String text = response.text();
+        if (text == null) {
+            throw new GenAiIOException("Empty response from Gemini");
+        }
+        return text;
+    }
+
+    private void recordUsage(String operation, GeminiRoute route, GenerateContentResponse response) {
+        GenerateContentResponseUsageMetadata usage = response.usageMetadata().orElse(null);
+        if (usage == null) {
+            return;
+        }
+        int promptTokens = usage.promptTokenCount().orElse(0);
+        int responseTokens = usage.candidatesTokenCount().orElse(0);
+        meterRegistry.counter("gemini.tokens", "task", route.task().key(), "model", route.model(),
+            "operation", operation, "type", "prompt").increment(promptTokens);
+        meterRegistry.counter("gemini.tokens", "task", route.task().key(), "model", route.model(),
+            "operation", operation, "type", "response").increment(responseTokens);
+        Counter.builder("gemini.cost")
+            .description("Estimated Gemini spend in USD, from the route's per-million-token prices")
+            .baseUnit("usd")
+            .tags("task", route.task().key(), "model", route.model(), "operation", operation)
+            .register(meterRegistry)
+            .increment(route.cost(promptTokens, responseTokens));
+    }
+
+    // Times the whole call including retries and backoff, which is what the caller waits for
+    private String callWithRetries(String operation, GeminiRoute route, int retries, Supplier<String> call,
+                                   BooleanSupplier retryAllowed, BooleanSupplier cancelled) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            String result = attempt(operation, route, retries, call, retryAllowed, cancelled);
+            outcome = "success";
+            return result;
+        } catch (GeminiUnavailableException e) {
+            if (e.getCause() == null) {
+                outcome = "rejected";
+            }
+            throw e;
+        } finally {
+            if (!outcome.equals("success") && cancelled.getAsBoolean()) {
+                outcome = "cancelled";
+            }
+            sample.stop(Timer.builder("gemini.requests")
+                .description("Gemini call latency per task, operation and model")
+                .tags("task", route.task().key(), "operation", operation, "model", route.model(), "outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        }
+    }
+
+    private String attempt(String operation, GeminiRoute route, int retries, Supplier<String> call,
+                           BooleanSupplier retryAllowed, BooleanSupplier cancelled) {
+        RuntimeException lastFailure = null;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(totalTimeoutMillis);
+        for (int attempt = 0; attempt <= retries; attempt++) {
+            if (!circuitBreaker.tryAcquire()) {
+                rejectedCounter.increment();
+                throw new GeminiUnavailableException("Gemini circuit breaker is open",
+                    circuitBreaker.remainingOpenMillis());
+            }
+            try {
+                String result = call.get();
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (RuntimeException e) {
+                // A hedged copy that lost was interrupted on purpose; that says nothing about Gemini
+                if (cancelled.getAsBoolean()) {
+                    circuitBreaker.onIgnored();
+                    throw new CancellationException("Gemini call cancelled after another copy won");
+                }
+                lastFailure = e;
+                meterRegistry.counter("gemini.calls.errors", "task", route.task().key(), "model", route.model(),
+                    "operation", operation, "error", e.getClass().getSimpleName()).increment();
+                if (!isRetryable(e)) {
+                    circuitBreaker.onIgnored();
+                    throw new GeminiUnavailableException("Gemini request failed: " + e.getMessage(), e);
+                }
+                circuitBreaker.onFailure();
+                logger.warn("Gemini attempt {} of {} failed: {}", attempt + 1, retries + 1, e.getMessage());
+                if (!retryAllowed.getAsBoolean()) {
+                    break;
+                }
+            }
+            if (attempt < retries) {
+                long delay = backoffMillis(attempt);
+                // Retry only if the backoff plus a full attempt still fits in the remaining budget
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining < delay + route.timeoutMillis()) {
+                    logger.warn("Not retrying Gemini after attempt {}: {} ms left of the {} ms budget",
+                        attempt + 1, Math.max(remaining, 0), totalTimeoutMillis);
+                    break;
+                }
+                retryCounter.increment();
+                sleepBeforeRetry(delay);
+            }
+        }
+        throw new GeminiUnavailableException("Gemini request failed: " + lastFailure.getMessage(), lastFailure);
+    }
+
+    // Server errors, throttling and I/O problems (including timeouts) are transient;
+    // other client errors such as a bad request or an invalid key are not.
+    private static boolean isRetryable(Throwable e) {
+        if (e instanceof ClientException) {
+            int code = ((ClientException) e).code();
+            return code == 408 || code == 429;
+        }
+        if (e instanceof ServerException || e instanceof GenAiIOException) {
+            return true;
+        }
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Full jitter: a random time between 0 and the capped exponential delay
+    private long backoffMillis(int attempt) {
+        long cap = Math.min(retryMaxDelayMillis, retryBaseDelayMillis << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private void sleepBeforeRetry(long delay) {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeminiUnavailableException("Interrupted while waiting to retry Gemini call", e);
         }
     }
 }
@@ -0,0 +1,28 @@
+package com.example.interviewsimulator.service;
+
+/**
+ * The kinds of work sent to Gemini. Each task has its own route (model, timeout and
+ * generation parameters) under {@code gemini.routes.<key>}; see {@link GeminiRouter}.
+ */
+public enum GeminiTask {
+
+    /** Interview questions, single or in pool batches: short output, latency matters most. */
+    QUESTION("question"),
+
+    /** Grading answers against the rubric, single or batched. */
+    EVALUATION("evaluation"),
+
+    /** Free-form {@code /ask} prompts. */
+    FREEFORM("freeform");
+
+    private final String key;
+
+    GeminiTask(String key) {
+        this.key = key;
+    }
+
+    /** Name used in property keys and metric tags. */
+    public String key() {
+        return key;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.interviewsimulator.service;
+
+/**
+ * Thrown when a Gemini call cannot be completed: the circuit breaker is open, the
+ * call timed out, or retries were exhausted. {@link #getRetryAfterMillis()} is a hint
+ * for how long clients should wait before trying again.
+ */
+public class GeminiUnavailableException extends RuntimeException {
+
+    private final long retryAfterMillis;
+
+    public GeminiUnavailableException(String message, long retryAfterMillis) {
+        super(message);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public GeminiUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+        this.retryAfterMillis = 0;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
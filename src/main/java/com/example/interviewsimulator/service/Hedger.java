@@ -0,0 +1,116 @@
+package com.example.interviewsimulator.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bookkeeping for hedged requests: when to send a second copy of a slow call, and
+ * whether the budget allows it.
+ *
+ * <p>The hedge delay is a percentile of the latencies recently recorded for the same
+ * key, taken over a ring buffer of the last {@code windowSize} samples and never below
+ * {@code minDelayMillis}. Until a key has {@code minSamples} samples there is no delay
+ * and no hedging.
+ *
+ * <p>The budget works like a retry budget: every call earns
+ * {@code budgetPercent / 100} of a hedge and every hedge spends a whole one, so hedges
+ * can never exceed {@code budgetPercent} of calls. At most {@link #MAX_SAVED_HEDGES}
+ * hedges are saved up, which bounds the burst after a long quiet spell.
+ */
+public class Hedger {
+
+    static final int MAX_SAVED_HEDGES = 10;
+
+    private static final long ONE_HEDGE = 1_000_000;
+
+    // Recomputing the percentile sorts the window, so it is only redone every few samples
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final double percentile;
+    private final long minDelayMillis;
+    private final int windowSize;
+    private final int minSamples;
+    private final long creditPerCall;
+
+    private final ConcurrentMap<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+    private final AtomicLong credit = new AtomicLong();
+
+    public Hedger(double percentile, long minDelayMillis, int windowSize, int minSamples, double budgetPercent) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("Hedge percentile must be between 0 and 1");
+        }
+        if (windowSize <= 0 || budgetPercent < 0) {
+            throw new IllegalArgumentException("Hedge window must be positive and budget not negative");
+        }
+        this.percentile = percentile;
+        this.minDelayMillis = minDelayMillis;
+        this.windowSize = windowSize;
+        this.minSamples = Math.max(1, Math.min(minSamples, windowSize));
+        this.creditPerCall = Math.round(budgetPercent / 100 * ONE_HEDGE);
+    }
+
+    /** Delay after which a call for {@code key} should be hedged, or -1 for not at all. */
+    public long delayMillis(String key) {
+        LatencyWindow window = windows.get(key);
+        long delay = window == null ? -1 : window.percentile();
+        return delay < 0 ? -1 : Math.max(minDelayMillis, delay);
+    }
+
+    /** Records how long a call for {@code key} took. */
+    public void recordLatency(String key, long millis) {
+        windows.computeIfAbsent(key, k -> new LatencyWindow()).record(millis);
+    }
+
+    /** Earns the share of a hedge that one call is entitled to. */
+    public void onCall() {
+        credit.updateAndGet(c -> Math.min(MAX_SAVED_HEDGES * ONE_HEDGE, c + creditPerCall));
+    }
+
+    /** Spends one hedge from the budget; false if the budget is exhausted. */
+    public boolean tryAcquire() {
+        long current;
+        do {
+            current = credit.get();
+            if (current < ONE_HEDGE) {
+                return false;
+            }
+        } while (!credit.compareAndSet(current, current - ONE_HEDGE));
+        return true;
+    }
+
+    /** Returns a hedge taken by {@link #tryAcquire()} that was not sent after all. */
+    public void refund() {
+        credit.updateAndGet(c -> Math.min(MAX_SAVED_HEDGES * ONE_HEDGE, c + ONE_HEDGE));
+    }
+
+    private final class LatencyWindow {
+
+        private final long[] samples = new long[windowSize];
+        private int next;
+        private int count;
+        private int sinceComputed;
+        private long cached = -1;
+
+        synchronized void record(long millis) {
+            samples[next] = millis;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            sinceComputed++;
+        }
+
+        synchronized long percentile() {
+            if (count < minSamples) {
+                return -1;
+            }
+            if (cached < 0 || sinceComputed >= RECOMPUTE_EVERY) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                cached = sorted[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)];
+                sinceComputed = 0;
+            }
+            return cached;
+        }
+    }
+}
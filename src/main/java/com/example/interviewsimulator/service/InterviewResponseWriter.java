@@ -0,0 +1,251 @@
+package com.example.interviewsimulator.service;
+
+import com.example.interviewsimulator.model.InterviewResponse;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.util.MongoDbErrorCodes;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence for {@link InterviewResponse}. Requests only enqueue; a
+ * single background thread flushes to Mongo with one unordered bulk insert per batch,
+ * whenever {@code batch-size} responses are waiting or {@code flush-interval-ms} has
+ * passed since the first one arrived.
+ *
+ * <p>The queue is bounded. When it stays full for {@code offer-timeout-ms} the caller
+ * writes its response synchronously, which slows producers down instead of dropping
+ * data. On shutdown the writer stops after the web server and drains the queue.
+ * A failed insert is retried for the responses that did not land, and every flush
+ * publishes an {@link InterviewResponsesPersistedEvent} for those that did.
+ */
+@Service
+public class InterviewResponseWriter implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(InterviewResponseWriter.class);
+
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<InterviewResponse> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long offerTimeoutMillis;
+    private final long shutdownTimeoutMillis;
+
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter overflowCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public InterviewResponseWriter(MongoTemplate mongoTemplate, ApplicationEventPublisher eventPublisher,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.persistence.write-behind.capacity:10000}") int capacity,
+                                   @Value("${app.persistence.write-behind.batch-size:100}") int batchSize,
+                                   @Value("${app.persistence.write-behind.flush-interval-ms:200}") long flushIntervalMillis,
+                                   @Value("${app.persistence.write-behind.offer-timeout-ms:50}") long offerTimeoutMillis,
+                                   @Value("${app.persistence.write-behind.shutdown-timeout-ms:10000}") long shutdownTimeoutMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+
+        Gauge.builder("interview.writer.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        this.flushTimer = Timer.builder("interview.writer.flush")
+            .description("Time to insert one batch of interview responses")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("interview.writer.batch.size").register(meterRegistry);
+        this.overflowCounter = meterRegistry.counter("interview.writer.overflow");
+        this.failedCounter = meterRegistry.counter("interview.writer.failed");
+    }
+
+    /** Queues a response for the next batch, or writes it inline when the queue is full. */
+    public void enqueue(InterviewResponse response) {
+        if (running) {
+            try {
+                if (queue.offer(response, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+                overflowCounter.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush(List.of(response));
+    }
+
+    /**
+     * Writes responses that were produced together, such as a batch-graded interview,
+     * inline as a single bulk insert instead of queueing them one by one.
+     */
+    public void writeAll(List<InterviewResponse> responses) {
+        if (!responses.isEmpty()) {
+            flush(new ArrayList<>(responses));
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::runLoop, "interview-response-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            worker.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("{} interview responses were still queued at shutdown", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Start before and stop after the embedded web server, so in-flight requests can
+    // still enqueue while it shuts down gracefully
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void runLoop() {
+        List<InterviewResponse> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                InterviewResponse first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    InterviewResponse next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                // Anything escaping flush (e.g. an event listener) must not kill the only writer thread
+                logger.error("Interview response writer failed on a batch of {}", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<InterviewResponse> batch) {
+        // Ids are assigned up front so a retry can tell which responses already landed
+        for (InterviewResponse response : batch) {
+            if (response.getId() == null) {
+                response.setId(new ObjectId().toHexString());
+            }
+        }
+        long start = System.nanoTime();
+        List<InterviewResponse> pending = batch;
+        List<InterviewResponse> persisted = new ArrayList<>(batch.size());
+        for (int attempt = 1; attempt <= MAX_FLUSH_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, InterviewResponse.class)
+                    .insert(pending)
+                    .execute();
+                persisted.addAll(pending);
+                pending = List.of();
+            } catch (RuntimeException e) {
+                logger.warn("Insert of {} interview responses failed (attempt {} of {}): {}",
+                    pending.size(), attempt, MAX_FLUSH_ATTEMPTS, e.getMessage());
+                pending = retainFailed(pending, e, persisted);
+            }
+        }
+        if (!persisted.isEmpty()) {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(persisted.size());
+            eventPublisher.publishEvent(new InterviewResponsesPersistedEvent(persisted));
+        }
+        if (!pending.isEmpty()) {
+            failedCounter.increment(pending.size());
+            logger.error("Dropping {} interview responses after {} failed inserts", pending.size(), MAX_FLUSH_ATTEMPTS);
+        }
+    }
+
+    /**
+     * Splits an attempt that failed into the responses to retry and those that landed.
+     * An unordered bulk insert reports the index of every failed document, and a
+     * duplicate {@code _id} means an earlier attempt already wrote it. Without a bulk
+     * report the outcome is unknown, so everything is retried.
+     */
+    private static List<InterviewResponse> retainFailed(List<InterviewResponse> attempted, RuntimeException e,
+                                                        List<InterviewResponse> persisted) {
+        MongoBulkWriteException bulkFailure = bulkFailure(e);
+        if (bulkFailure == null) {
+            return attempted;
+        }
+        Set<Integer> failed = new HashSet<>();
+        for (BulkWriteError error : bulkFailure.getWriteErrors()) {
+            if (!MongoDbErrorCodes.isDuplicateKeyCode(error.getCode())) {
+                failed.add(error.getIndex());
+            }
+        }
+        List<InterviewResponse> retry = new ArrayList<>(failed.size());
+        for (int i = 0; i < attempted.size(); i++) {
+            (failed.contains(i) ? retry : persisted).add(attempted.get(i));
+        }
+        return retry;
+    }
+
+    // Spring wraps the driver's report in a BulkOperationException, or in a
+    // DuplicateKeyException when one of the errors is a duplicate key
+    private static MongoBulkWriteException bulkFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoBulkWriteException bulk) {
+                return bulk;
+            }
+        }
+        return null;
+    }
+}
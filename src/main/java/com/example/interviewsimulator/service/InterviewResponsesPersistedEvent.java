@@ -0,0 +1,23 @@
+package com.example.interviewsimulator.service;
+
+import com.example.interviewsimulator.model.InterviewResponse;
+
+import java.util.List;
+
+/**
+ * Published by {@link InterviewResponseWriter} after a batch of responses has been
+ * inserted. This is the in-process feed for {@link UserStatsProjector} when
+ * {@code app.stats.projection.source=local}.
+ */
+public class InterviewResponsesPersistedEvent {
+
+    private final List<InterviewResponse> responses;
+
+    public InterviewResponsesPersistedEvent(List<InterviewResponse> responses) {
+        this.responses = List.copyOf(responses);
+    }
+
+    public List<InterviewResponse> getResponses() {
+        return responses;
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.interviewsimulator.service;
+
+import com.example.interviewsimulator.model.InterviewState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodes {@link InterviewState} as a compact signed token so that, with
+ * {@code app.interview.stateless.enabled=true}, interview progress travels with the
+ * request instead of living in the HTTP session.
+ *
+ * <p>This does not make the API sessionless. The OAuth2 login and the Spring Security
+ * context are still kept in the HTTP session, and every {@code /api} request needs
+ * them, so a deployment with several nodes still needs sticky routing or a shared
+ * session store. What stateless mode does is keep that session down to the login:
+ * progress is not lost when a session moves or expires mid-interview, and a shared
+ * store has little to replicate.
+ *
+ * <p>Token format: {@code base64url(payload) "." base64url(HMAC-SHA256(payload))}. The
+ * payload is a version byte, a flags byte and a binary body, deflated when
+ * {@code compress} is on and that actually makes it smaller. Tokens older than
+ * {@code max-age-seconds} are rejected; every response reissues a fresh one.
+ */
+@Component
+public class InterviewStateCodec {
+
+    public static final String HEADER = "X-Interview-State";
+
+    private static final byte VERSION = 1;
+    private static final byte FLAG_DEFLATED = 1;
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+    private static final String HMAC = "HmacSHA256";
+
+    private final boolean enabled;
+    private final SecretKeySpec key;
+    private final long maxAgeSeconds;
+    private final boolean compress;
+    private final int maxFingerprints;
+
+    public InterviewStateCodec(@Value("${app.interview.stateless.enabled:false}") boolean enabled,
+                               @Value("${app.interview.stateless.secret:}") String secret,
+                               @Value("${app.interview.stateless.max-age-seconds:86400}") long maxAgeSeconds,
+                               @Value("${app.interview.stateless.compress:true}") boolean compress,
+                               @Value("${app.interview.stateless.max-fingerprints:50}") int maxFingerprints) {
+        if (enabled && (secret == null || secret.length() < 32)) {
+            throw new IllegalStateException(
+                "app.interview.stateless.secret must be at least 32 characters when stateless mode is enabled");
+        }
+        this.enabled = enabled;
+        this.key = enabled ? new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC) : null;
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.compress = compress;
+        this.maxFingerprints = maxFingerprints;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMaxFingerprints() {
+        return maxFingerprints;
+    }
+
+    public String encode(InterviewState state) {
+        state.setIssuedAt(System.currentTimeMillis() / 1000);
+        byte[] body = writeBody(state);
+        byte flags = 0;
+        if (compress) {
+            byte[] deflated = deflate(body);
+            if (deflated.length < body.length) {
+                body = deflated;
+                flags = FLAG_DEFLATED;
+            }
+        }
+        byte[] payload = new byte[body.length + 2];
+        payload[0] = VERSION;
+        payload[1] = flags;
+        System.arraycopy(body, 0, payload, 2, body.length);
+
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload) + "." + encoder.encodeToString(sign(payload));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token is malformed, tampered with or expired
+     */
+    public InterviewState decode(String token) {
+        int dot = token.indexOf('.');
+        if (dot < 0) {
+            throw new IllegalArgumentException("Malformed interview state token");
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = Base64.getUrlDecoder().decode(token.substring(0, dot));
+            signature = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed interview state token");
+        }
+        if (!MessageDigest.isEqual(sign(payload), signature)) {
+            throw new IllegalArgumentException("Invalid interview state signature");
+        }
+        if (payload.length < 2 || payload[0] != VERSION) {
+            throw new IllegalArgumentException("Unsupported interview state version");
+        }
+        byte[] body = new byte[payload.length - 2];
+        System.arraycopy(payload, 2, body, 0, body.length);
+        if ((payload[1] & FLAG_DEFLATED) != 0) {
+            body = inflate(body);
+        }
+
+        InterviewState state = readBody(body);
+        long age = System.currentTimeMillis() / 1000 - state.getIssuedAt();
+        if (age > maxAgeSeconds) {
+            throw new IllegalArgumentException("Interview state token has expired");
+        }
+        return state;
+    }
+
+    private static byte[] writeBody(InterviewState state) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(state.getRole() == null ? "" : state.getRole());
+            out.writeUTF(state.getEmail() == null ? "" : state.getEmail());
+            out.writeInt(state.getQuestionIndex());
+            out.writeLong(state.getScoreSum());
+            out.writeInt(state.getCount());
+            out.writeLong(state.getIssuedAt());
+            List<Integer> fingerprints = state.getAskedFingerprints();
+            out.writeShort(fingerprints.size());
+            for (int fingerprint : fingerprints) {
+                out.writeInt(fingerprint);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode interview state", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static InterviewState readBody(byte[] body) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body))) {
+            InterviewState state = new InterviewState();
+            String role = in.readUTF();
+            String email = in.readUTF();
+            state.setRole(role.isEmpty() ? null : role);
+            state.setEmail(email.isEmpty() ? null : email);
+            state.setQuestionIndex(in.readInt());
+            state.setScoreSum(in.readLong());
+            state.setCount(in.readInt());
+            state.setIssuedAt(in.readLong());
+            int n = in.readUnsignedShort();
+            List<Integer> fingerprints = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                fingerprints.add(in.readInt());
+            }
+            state.setAskedFingerprints(fingerprints);
+            return state;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed interview state token");
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+        }
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length);
+            byte[] buffer = new byte[256];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // Only reached for signed payloads, but still capped so a token can never expand unboundedly
+    private static byte[] inflate(byte[] input) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 2);
+            byte[] buffer = new byte[256];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Malformed interview state token");
+                }
+                out.write(buffer, 0, n);
+                if (out.size() > MAX_BODY_BYTES) {
+                    throw new IllegalArgumentException("Interview state token is too large");
+                }
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Malformed interview state token");
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.interviewsimulator.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prompt templates loaded from {@code app.prompts.location} (one {@code <name>.txt}
+ * per template) and compiled once at startup into literal and variable segments.
+ *
+ * <p>A template may start with directives: {@code ## budget <tokens>} caps the whole
+ * rendered prompt and {@code ## limit <variable> <tokens>} caps one variable. Variables
+ * are written {@code {{name}}}. Values are escaped before substitution so user input
+ * cannot open or close the tags it is quoted in. Values over their limit, and then the
+ * largest value while the prompt is over budget, are trimmed deterministically to a
+ * head and a tail around an omission marker. {@code ## raw <variable>} marks a variable
+ * holding other rendered templates (already escaped and limited); it is inserted as is
+ * and never trimmed. Tokens are estimated at four characters each, which is close
+ * enough for budgeting English text.
+ */
+@Component
+public class PromptTemplates {
+
+    private static final Logger logger = LoggerFactory.getLogger(PromptTemplates.class);
+
+    static final int CHARS_PER_TOKEN = 4;
+
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{\\s*([a-zA-Z][a-zA-Z0-9_]*)\\s*}}");
+    private static final Pattern DIRECTIVE = Pattern.compile("^##\\s+(budget|limit|raw)\\s+(\\S+)(?:\\s+(\\S+))?\\s*$");
+    private static final int MIN_TRIMMED_TOKENS = 16;
+
+    private final Map<String, Template> templates = new HashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public PromptTemplates(@Value("${app.prompts.location:classpath:prompts/}") String location,
+                           MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(location + "*.txt");
+            for (Resource resource : resources) {
+                String filename = resource.getFilename();
+                String name = filename.substring(0, filename.length() - ".txt".length());
+                templates.put(name, compile(name, resource.getContentAsString(StandardCharsets.UTF_8)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load prompt templates from " + location, e);
+        }
+        logger.info("Loaded {} prompt templates from {}", templates.size(), location);
+    }
+
+    /**
+     * Renders a template with the given variable values.
+     *
+     * @throws IllegalArgumentException if the template does not exist or a variable is missing
+     */
+    public String render(String name, Map<String, ?> values) {
+        Template template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown prompt template: " + name);
+        }
+
+        Map<String, String> rendered = new LinkedHashMap<>();
+        for (String variable : template.variables) {
+            Object value = values.get(variable);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing value for {{" + variable + "}} in prompt " + name);
+            }
+            if (template.raw.contains(variable)) {
+                rendered.put(variable, value.toString());
+                continue;
+            }
+            String escaped = escape(value.toString());
+            Integer limit = template.limits.get(variable);
+            if (limit != null && estimateTokens(escaped) > limit) {
+                escaped = truncate(escaped, limit);
+                template.truncated(variable).increment();
+            }
+            rendered.put(variable, escaped);
+        }
+
+        int total = template.literalTokens + rendered.values().stream().mapToInt(PromptTemplates::estimateTokens).sum();
+        while (template.budget > 0 && total > template.budget) {
+            Map.Entry<String, String> largest = rendered.entrySet().stream()
+                .filter(entry -> !template.raw.contains(entry.getKey()))
+                .max(Map.Entry.comparingByValue((a, b) -> Integer.compare(a.length(), b.length())))
+                .orElse(null);
+            int current = largest == null ? 0 : estimateTokens(largest.getValue());
+            if (current <= MIN_TRIMMED_TOKENS) {
+                break;
+            }
+            int target = Math.max(MIN_TRIMMED_TOKENS, current - (total - template.budget));
+            largest.setValue(truncate(largest.getValue(), target));
+            template.truncated(largest.getKey()).increment();
+            total = template.literalTokens + rendered.values().stream().mapToInt(PromptTemplates::estimateTokens).sum();
+        }
+
+        StringBuilder prompt = new StringBuilder(total * CHARS_PER_TOKEN);
+        for (int i = 0; i < template.variables.size(); i++) {
+            prompt.append(template.literals.get(i)).append(rendered.get(template.variables.get(i)));
+        }
+        prompt.append(template.literals.get(template.variables.size()));
+        template.tokens.record(estimateTokens(prompt));
+        return prompt.toString();
+    }
+
+    /**
+     * Short hash of a template's source; it changes whenever the template is edited, so
+     * anything derived from a rendered prompt can be keyed by it.
+     *
+     * @throws IllegalArgumentException if the template does not exist
+     */
+    public String version(String name) {
+        Template template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown prompt template: " + name);
+        }
+        return template.version;
+    }
+
+    public static int estimateTokens(CharSequence text) {
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    // Drops control characters and neutralizes angle brackets so a value cannot close
+    // the tag it is quoted in; long runs of blank lines are collapsed.
+    static String escape(String value) {
+        StringBuilder out = new StringBuilder(value.length());
+        int newlines = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\n') {
+                if (++newlines <= 2) {
+                    out.append(c);
+                }
+                continue;
+            }
+            if (c == '\r' || (Character.isISOControl(c) && c != '\t')) {
+                continue;
+            }
+            newlines = 0;
+            if (c == '<') {
+                out.append("&lt;");
+            } else if (c == '>') {
+                out.append("&gt;");
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString().trim();
+    }
+
+    /**
+     * Keeps the first two thirds and the last third of the allowed length, cut on word
+     * boundaries, with a marker saying how many words were left out.
+     */
+    static String truncate(String value, int maxTokens) {
+        int maxChars = maxTokens * CHARS_PER_TOKEN;
+        if (value.length() <= maxChars) {
+            return value;
+        }
+        int keep = Math.max(0, maxChars - 40);
+        int headEnd = wordBoundaryBefore(value, keep * 2 / 3);
+        int tailStart = wordBoundaryAfter(value, value.length() - (keep - keep * 2 / 3));
+        if (tailStart < headEnd) {
+            tailStart = headEnd;
+        }
+        int omittedWords = countWords(value, headEnd, tailStart);
+        return value.substring(0, headEnd).stripTrailing()
+            + " [... " + omittedWords + " words omitted ...] "
+            + value.substring(tailStart).stripLeading();
+    }
+
+    private static int countWords(String value, int from, int to) {
+        int words = 0;
+        boolean inWord = false;
+        for (int i = from; i < to; i++) {
+            boolean whitespace = Character.isWhitespace(value.charAt(i));
+            if (!whitespace && !inWord) {
+                words++;
+            }
+            inWord = !whitespace;
+        }
+        return words;
+    }
+
+    private static int wordBoundaryBefore(String value, int index) {
+        for (int i = index; i > index / 2; i--) {
+            if (Character.isWhitespace(value.charAt(i))) {
+                return i;
+            }
+        }
+        return index;
+    }
+
+    private static int wordBoundaryAfter(String value, int index) {
+        int limit = Math.min(value.length(), index + (value.length() - index) / 2);
+        for (int i = index; i < limit; i++) {
+            if (Character.isWhitespace(value.charAt(i))) {
+                return i;
+            }
+        }
+        return index;
+    }
+
+    private static String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private Template compile(String name, String source) {
+        Template template = new Template(name);
+        template.version = sha256(source).substring(0, 12);
+        List<String> body = new ArrayList<>();
+        boolean header = true;
+        for (String line : source.split("\\R", -1)) {
+            Matcher directive = DIRECTIVE.matcher(line);
+            if (header && directive.matches()) {
+                if ("budget".equals(directive.group(1))) {
+                    template.budget = Integer.parseInt(directive.group(2));
+                } else if ("raw".equals(directive.group(1))) {
+                    template.raw.add(directive.group(2));
+                } else {
+                    template.limits.put(directive.group(2), Integer.parseInt(directive.group(3)));
+                }
+                continue;
+            }
+            header = false;
+            body.add(line);
+        }
+        String text = String.join("\n", body).stripTrailing();
+
+        Matcher variable = VARIABLE.matcher(text);
+        int last = 0;
+        int literalChars = 0;
+        while (variable.find()) {
+            String literal = text.substring(last, variable.start());
+            template.literals.add(literal);
+            template.variables.add(variable.group(1));
+            literalChars += literal.length();
+            last = variable.end();
+        }
+        template.literals.add(text.substring(last));
+        literalChars += text.length() - last;
+        template.literalTokens = (literalChars + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+        template.tokens = DistributionSummary.builder("gemini.prompt.tokens")
+            .description("Estimated tokens per rendered prompt")
+            .tag("template", name)
+            .register(meterRegistry);
+        return template;
+    }
+
+    private final class Template {
+        final String name;
+        final List<String> literals = new ArrayList<>();
+        final List<String> variables = new ArrayList<>();
+        final Map<String, Integer> limits = new HashMap<>();
+        final Set<String> raw = new HashSet<>();
+        String version;
+        int budget;
+        int literalTokens;
+        DistributionSummary tokens;
+
+        Template(String name) {
+            this.name = name;
+        }
+
+        Counter truncated(String variable) {
+            return meterRegistry.counter("gemini.prompt.truncated", "template", name, "variable", variable);
+        }
+    }
+}
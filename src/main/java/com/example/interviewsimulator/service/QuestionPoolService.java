@@ -0,0 +1,185 @@
+package com.example.interviewsimulator.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps a pool of pre-generated interview questions for every supported role so that
+ * starting an interview or moving to the next question does not pay for a model round
+ * trip. Pools are refilled in batches whenever they drop below the low watermark, up
+ * to the high watermark; callers fall back to a live Gemini call when a pool is empty.
+ */
+@Service
+public class QuestionPoolService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuestionPoolService.class);
+
+    @Autowired
+    private GeminiService geminiService;
+
+    @Autowired
+    private PromptTemplates promptTemplates;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.interview.question-pool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.interview.supported-roles:}")
+    private List<String> supportedRoles;
+
+    @Value("${app.interview.question-pool.low-watermark:5}")
+    private int lowWatermark;
+
+    @Value("${app.interview.question-pool.high-watermark:20}")
+    private int highWatermark;
+
+    @Value("${app.interview.question-pool.batch-size:10}")
+    private int batchSize;
+
+    private final Map<String, RolePool> pools = new ConcurrentHashMap<>();
+
+    private static class RolePool {
+        final Queue<String> questions = new ConcurrentLinkedQueue<>();
+        final AtomicInteger size = new AtomicInteger();
+        final AtomicBoolean refilling = new AtomicBoolean();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        for (String role : supportedRoles) {
+            if (!role.isBlank()) {
+                pools.computeIfAbsent(normalize(role), r -> new RolePool());
+            }
+        }
+        refillAll();
+    }
+
+    /**
+     * Takes a pre-generated question for {@code role}, or returns empty when the role is
+     * not pooled or its pool has run dry. Dropping below the low watermark schedules a
+     * refill without blocking the caller.
+     */
+    public Optional<String> poll(String role) {
+        if (!enabled || role == null) {
+            return Optional.empty();
+        }
+        String key = normalize(role);
+        RolePool pool = pools.get(key);
+        if (pool == null) {
+            meterRegistry.counter("questionpool.requests", "outcome", "unpooled").increment();
+            return Optional.empty();
+        }
+        String question = pool.questions.poll();
+        if (question != null) {
+            pool.size.decrementAndGet();
+        }
+        // A miss means the caller falls back to a live Gemini call
+        meterRegistry.counter("questionpool.requests", "outcome", question != null ? "hit" : "miss").increment();
+        if (pool.size.get() < lowWatermark) {
+            refill(key, pool);
+        }
+        return Optional.ofNullable(question);
+    }
+
+    public int size(String role) {
+        RolePool pool = pools.get(normalize(role));
+        return pool == null ? 0 : pool.size.get();
+    }
+
+    @Scheduled(fixedDelayString = "${app.interview.question-pool.refill-interval-ms:30000}",
+               initialDelayString = "${app.interview.question-pool.refill-interval-ms:30000}")
+    public void refillAll() {
+        if (!enabled) {
+            return;
+        }
+        pools.forEach((role, pool) -> {
+            if (pool.size.get() < lowWatermark) {
+                refill(role, pool);
+            }
+        });
+    }
+
+    // At most one batch is in flight per role; each completed batch triggers the next
+    // one until the pool reaches the high watermark. Refills run in the background and
+    // never fail the caller, even when the Gemini executor rejects the call.
+    private void refill(String role, RolePool pool) {
+        if (!pool.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        CompletableFuture<String> batch;
+        try {
+            batch = geminiService.generateQuestionAsync(role, batchPrompt(role, batchSize));
+        } catch (RuntimeException e) {
+            pool.refilling.set(false);
+            logger.warn("Question pool refill could not start for role '{}': {}", role, e.getMessage());
+            return;
+        }
+        batch
+            .whenComplete((raw, e) -> {
+                boolean added = false;
+                if (e != null) {
+                    logger.warn("Question pool refill failed for role '{}': {}", role, e.getMessage());
+                } else {
+                    for (String question : parseBatch(raw)) {
+                        if (pool.size.get() >= highWatermark) {
+                            break;
+                        }
+                        pool.questions.offer(question);
+                        pool.size.incrementAndGet();
+                        added = true;
+                    }
+                }
+                pool.refilling.set(false);
+                if (added && pool.size.get() < highWatermark) {
+                    refill(role, pool);
+                }
+            });
+    }
+
+    private String batchPrompt(String role, int count) {
+        return promptTemplates.render("question-batch", Map.of("role", role, "count", count));
+    }
+
+    static List<String> parseBatch(String raw) {
+        Set<String> questions = new LinkedHashSet<>();
+        if (raw == null) {
+            return List.of();
+        }
+        for (String line : raw.split("\\R")) {
+            String question = line.replaceFirst("^\\s*(?:[-*•]|\\d+[.)])\\s*", "").trim();
+            if (question.length() >= 10) {
+                questions.add(question);
+            }
+        }
+        return List.copyOf(questions);
+    }
+
+    private static String normalize(String role) {
+        return role.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.interviewsimulator.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into one: the first caller runs the call
+ * and everyone who asks for that key while it is in flight shares its outcome, success
+ * or failure. The entry is removed as soon as the call completes, so nothing is cached;
+ * the next call after that runs again.
+ *
+ * <p>Synchronous and asynchronous callers share the same flights: {@link #call} runs the
+ * work on the calling thread when it leads and blocks on the flight when it joins.
+ * Callers get their own copy of the shared future, so cancelling or completing it does
+ * not affect the others.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Consumer<K> onJoin;
+
+    /** @param onJoin called with the key whenever a caller joins a flight instead of starting one */
+    public SingleFlight(Consumer<K> onJoin) {
+        this.onJoin = onJoin;
+    }
+
+    /** Joins the flight for {@code key}, or starts one with {@code call}. */
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            onJoin.accept(key);
+            return existing.copy();
+        }
+        CompletableFuture<V> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            land(key, flight, null, e);
+            throw e;
+        }
+        result.whenComplete((value, e) -> land(key, flight, value, e));
+        return flight.copy();
+    }
+
+    /**
+     * Blocking variant of {@link #execute}. Failures are rethrown as they were thrown by
+     * the leading call, unwrapped from {@link CompletionException}.
+     */
+    public V call(K key, Supplier<V> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            onJoin.accept(key);
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        V value;
+        try {
+            value = call.get();
+        } catch (RuntimeException e) {
+            land(key, flight, null, e);
+            throw e;
+        }
+        land(key, flight, value, null);
+        return value;
+    }
+
+    /** Number of keys currently in flight. */
+    public int size() {
+        return inFlight.size();
+    }
+
+    // Removed before completing, so a caller arriving after the outcome starts a new flight
+    private void land(K key, CompletableFuture<V> flight, V value, Throwable failure) {
+        inFlight.remove(key, flight);
+        if (failure != null) {
+            flight.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure);
+        } else {
+            flight.complete(value);
+        }
+    }
+}
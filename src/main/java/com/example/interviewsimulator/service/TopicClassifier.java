@@ -0,0 +1,262 @@
+package com.example.interviewsimulator.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns interview questions to topics using the taxonomy in
+ * {@code app.stats.topics.taxonomy}: a list of topics, each with keywords or phrases
+ * and a weight per keyword.
+ *
+ * <p>All keywords are compiled once into an Aho-Corasick automaton, so classifying a
+ * text is a single pass over it regardless of how many keywords there are. Text and
+ * keywords are normalized the same way (lower case, every run of characters other
+ * than letters, digits, {@code +} and {@code #} becomes one space) and matched with a
+ * space on either side, which makes matches whole-word: "js" matches "Node.js" but
+ * not "json". A topic scores the summed weight of every keyword occurrence.
+ */
+@Component
+public class TopicClassifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopicClassifier.class);
+
+    private static final char SEPARATOR = ' ';
+
+    private final String fallback;
+    private final String[] topics;
+
+    // Dense DFA: next state is transitions[state * alphabetSize + symbol(c)]
+    private final int[] transitions;
+    private final int alphabetSize;
+    private final int[] asciiSymbols = new int[128];
+    private final Map<Character, Integer> symbols;
+
+    // Per state, the topic and weight of every keyword ending there (own and suffix matches)
+    private final int[][] matchTopics;
+    private final double[][] matchWeights;
+
+    @Autowired
+    public TopicClassifier(@Value("${app.stats.topics.taxonomy:classpath:topics.json}") String location) {
+        this(load(location));
+        logger.info("Loaded {} topics from {}", topics.length, location);
+    }
+
+    TopicClassifier(String fallback, Map<String, Map<String, Double>> taxonomy) {
+        this(new Taxonomy(fallback, taxonomy));
+    }
+
+    private TopicClassifier(Taxonomy taxonomy) {
+        this.fallback = taxonomy.fallback;
+        this.topics = taxonomy.keywords.keySet().toArray(String[]::new);
+
+        // Trie of all normalized keywords, each wrapped in separators
+        List<Map<Character, Integer>> children = new ArrayList<>();
+        List<List<double[]>> outputs = new ArrayList<>();
+        children.add(new HashMap<>());
+        outputs.add(new ArrayList<>());
+        Map<Character, Integer> alphabet = new LinkedHashMap<>();
+        alphabet.put(SEPARATOR, 1);
+        for (int topic = 0; topic < topics.length; topic++) {
+            for (Map.Entry<String, Double> keyword : taxonomy.keywords.get(topics[topic]).entrySet()) {
+                String normalized = normalize(keyword.getKey());
+                if (normalized.isEmpty()) {
+                    continue;
+                }
+                String pattern = SEPARATOR + normalized + SEPARATOR;
+                int state = 0;
+                for (char c : pattern.toCharArray()) {
+                    alphabet.putIfAbsent(c, alphabet.size() + 1);
+                    Integer next = children.get(state).get(c);
+                    if (next == null) {
+                        next = children.size();
+                        children.get(state).put(c, next);
+                        children.add(new HashMap<>());
+                        outputs.add(new ArrayList<>());
+                    }
+                    state = next;
+                }
+                outputs.get(state).add(new double[] {topic, keyword.getValue()});
+            }
+        }
+
+        // Breadth-first failure links, folded straight into a full transition table.
+        // Symbol 0 stands for every character that appears in no keyword.
+        this.symbols = alphabet;
+        this.alphabetSize = alphabet.size() + 1;
+        alphabet.forEach((c, symbol) -> {
+            if (c < asciiSymbols.length) {
+                asciiSymbols[c] = symbol;
+            }
+        });
+        int states = children.size();
+        this.transitions = new int[states * alphabetSize];
+        int[] failure = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (Map.Entry<Character, Integer> child : children.get(0).entrySet()) {
+            transitions[symbols.get(child.getKey())] = child.getValue();
+            queue.add(child.getValue());
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs.get(state).addAll(outputs.get(failure[state]));
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                transitions[state * alphabetSize + symbol] = transitions[failure[state] * alphabetSize + symbol];
+            }
+            for (Map.Entry<Character, Integer> child : children.get(state).entrySet()) {
+                int symbol = symbols.get(child.getKey());
+                int next = child.getValue();
+                failure[next] = transitions[failure[state] * alphabetSize + symbol];
+                transitions[state * alphabetSize + symbol] = next;
+                queue.add(next);
+            }
+        }
+
+        this.matchTopics = new int[states][];
+        this.matchWeights = new double[states][];
+        for (int state = 0; state < states; state++) {
+            List<double[]> matches = outputs.get(state);
+            matchTopics[state] = new int[matches.size()];
+            matchWeights[state] = new double[matches.size()];
+            for (int i = 0; i < matches.size(); i++) {
+                matchTopics[state][i] = (int) matches.get(i)[0];
+                matchWeights[state][i] = matches.get(i)[1];
+            }
+        }
+    }
+
+    /**
+     * Scores every topic mentioned in {@code text}, highest first; ties keep taxonomy
+     * order. Empty when nothing matches.
+     */
+    public Map<String, Double> classify(String text) {
+        double[] scores = score(text);
+        Integer[] order = new Integer[topics.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> scores[i]).reversed());
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (int topic : order) {
+            if (scores[topic] > 0) {
+                result.put(topics[topic], scores[topic]);
+            }
+        }
+        return result;
+    }
+
+    /** The highest-scoring topic of {@code text}, or the taxonomy's fallback topic. */
+    public String primaryTopic(String text) {
+        double[] scores = score(text);
+        int best = -1;
+        for (int topic = 0; topic < scores.length; topic++) {
+            if (scores[topic] > 0 && (best < 0 || scores[topic] > scores[best])) {
+                best = topic;
+            }
+        }
+        return best < 0 ? fallback : topics[best];
+    }
+
+    private double[] score(String text) {
+        double[] scores = new double[topics.length];
+        if (text == null) {
+            return scores;
+        }
+        int state = step(0, SEPARATOR, scores);
+        boolean separated = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isWordChar(c)) {
+                state = step(state, Character.toLowerCase(c), scores);
+                separated = false;
+            } else if (!separated) {
+                state = step(state, SEPARATOR, scores);
+                separated = true;
+            }
+        }
+        if (!separated) {
+            step(state, SEPARATOR, scores);
+        }
+        return scores;
+    }
+
+    private int step(int state, char c, double[] scores) {
+        int symbol = c < asciiSymbols.length ? asciiSymbols[c] : symbols.getOrDefault(c, 0);
+        int next = transitions[state * alphabetSize + symbol];
+        int[] matched = matchTopics[next];
+        for (int i = 0; i < matched.length; i++) {
+            scores[matched[i]] += matchWeights[next][i];
+        }
+        return next;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '+' || c == '#';
+    }
+
+    static String normalize(String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        boolean separated = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isWordChar(c)) {
+                out.append(Character.toLowerCase(c));
+                separated = false;
+            } else if (!separated) {
+                out.append(SEPARATOR);
+                separated = true;
+            }
+        }
+        return out.toString().trim();
+    }
+
+    private static Taxonomy load(String location) {
+        Resource resource = new DefaultResourceLoader().getResource(location);
+        try (InputStream in = resource.getInputStream()) {
+            JsonNode root = new ObjectMapper().readTree(in);
+            Map<String, Map<String, Double>> keywords = new LinkedHashMap<>();
+            for (JsonNode topic : root.path("topics")) {
+                Map<String, Double> weights = new LinkedHashMap<>();
+                Iterator<Map.Entry<String, JsonNode>> fields = topic.path("keywords").fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    weights.put(field.getKey(), field.getValue().asDouble(1.0));
+                }
+                keywords.put(topic.path("name").asText(), weights);
+            }
+            return new Taxonomy(root.path("fallback").asText("General"), keywords);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load topic taxonomy from " + location, e);
+        }
+    }
+
+    private static class Taxonomy {
+
+        private final String fallback;
+        private final Map<String, Map<String, Double>> keywords;
+
+        Taxonomy(String fallback, Map<String, Map<String, Double>> keywords) {
+            this.fallback = fallback;
+            this.keywords = keywords;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.interviewsimulator.service;
+
+import com.example.interviewsimulator.model.InterviewResponse;
+import com.example.interviewsimulator.model.UserStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Keeps the {@code user_stats} aggregates and history buckets in step with
+ * {@code interview_responses}, which is the only thing the request path writes.
+ *
+ * <p>Responses arrive either from {@link InterviewResponseWriter} after each flush
+ * ({@code app.stats.projection.source=local}, the default) or from a Mongo change
+ * stream ({@code change-stream}, see {@link ChangeStreamProjectionSource}). Local
+ * batches are applied on the single-threaded {@code statsProjectionExecutor} and
+ * change events on the stream's listener thread, so no request thread ever waits on
+ * the stats upserts.
+ *
+ * <p>Projection is idempotent (see {@link UserStatsService#updateInterviewStats}), so
+ * responses may be delivered more than once. Every response is inserted with
+ * {@code statsProjected=false} and flagged once its stats are written. With the local
+ * source, a periodic sweep re-projects responses that are still unflagged after
+ * {@code app.stats.projection.sweep-grace-ms}, which covers failed projections and a
+ * crash between insert and projection.
+ */
+@Service
+public class UserStatsProjector {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStatsProjector.class);
+
+    static final String ANONYMOUS = "anonymous";
+
+    @Value("${app.stats.projection.source:local}")
+    private String source;
+
+    @Value("${app.stats.projection.sweep-grace-ms:60000}")
+    private long sweepGraceMillis;
+
+    @Value("${app.stats.projection.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    @Qualifier("statsProjectionExecutor")
+    private Executor statsProjectionExecutor;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter projectedCounter;
+
+    private Counter failedCounter;
+
+    @PostConstruct
+    public void init() {
+        projectedCounter = meterRegistry.counter("userstats.projection.applied");
+        failedCounter = meterRegistry.counter("userstats.projection.failed");
+    }
+
+    @EventListener
+    public void onPersisted(InterviewResponsesPersistedEvent event) {
+        if (!"local".equalsIgnoreCase(source)) {
+            return;
+        }
+        statsProjectionExecutor.execute(() -> projectAll(event.getResponses()));
+    }
+
+    /** Re-projects responses whose projection was never confirmed; local source only. */
+    @Scheduled(fixedDelayString = "${app.stats.projection.sweep-interval-ms:60000}",
+        initialDelayString = "${app.stats.projection.sweep-interval-ms:60000}")
+    public void sweepPending() {
+        if (!"local".equalsIgnoreCase(source)) {
+            return;
+        }
+        Query pending = Query.query(Criteria.where("statsProjected").is(false)
+                .and("timestamp").lt(new Date(System.currentTimeMillis() - sweepGraceMillis)))
+            .with(Sort.by("timestamp"))
+            .limit(sweepBatchSize);
+        try {
+            List<InterviewResponse> responses = mongoTemplate.find(pending, InterviewResponse.class);
+            if (!responses.isEmpty()) {
+                logger.info("Re-projecting {} interview responses with unconfirmed stats", responses.size());
+                projectAll(responses);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Projection sweep failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Applies persisted responses to their users' stats and flags the ones that made it.
+     *
+     * @return true if every response was projected
+     */
+    public boolean projectAll(List<InterviewResponse> responses) {
+        List<String> projected = new ArrayList<>(responses.size());
+        boolean all = true;
+        for (InterviewResponse response : responses) {
+            if (!project(response)) {
+                all = false;
+            } else if (response.getId() != null) {
+                projected.add(response.getId());
+            }
+        }
+        if (!projected.isEmpty()) {
+            try {
+                mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(projected)),
+                    new Update().set("statsProjected", true), InterviewResponse.class);
+            } catch (RuntimeException e) {
+                // Harmless: the sweep replays them and the replay is not counted again
+                logger.warn("Could not flag {} projected interview responses: {}", projected.size(), e.getMessage());
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Applies one persisted response to its user's stats. Anonymous answers are stored
+     * in {@code interview_responses} but have no stats document.
+     *
+     * @return false if the projection failed and should be retried
+     */
+    public boolean project(InterviewResponse response) {
+        String email = response.getUserEmail();
+        if (email == null || ANONYMOUS.equals(email)) {
+            return true;
+        }
+        try {
+            if (userStatsService.updateInterviewStats(email, toRecord(response))) {
+                projectedCounter.increment();
+            }
+            return true;
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            logger.error("Failed to project interview response {} for {}", response.getId(), email, e);
+            return false;
+        }
+    }
+
+    static UserStats.InterviewRecord toRecord(InterviewResponse response) {
+        Instant at = response.getTimestamp() != null ? response.getTimestamp().toInstant() : Instant.now();
+        UserStats.InterviewRecord record = new UserStats.InterviewRecord();
+        record.setQuestion(response.getQuestion());
+        record.setAnswer(response.getAnswer());
+        record.setScore(response.getScore());
+        record.setStrengths(response.getStrengths());
+        record.setWeaknesses(response.getWeaknesses());
+        record.setFeedback(response.getFeedback());
+        record.setTimestamp(at.toEpochMilli());
+        record.setDate(at.atZone(ZoneId.systemDefault()).toLocalDate().toString());
+        record.setResponseId(response.getId());
+        return record;
+    }
+}
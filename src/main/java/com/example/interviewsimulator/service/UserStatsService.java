@@ -1,84 +1,455 @@
 package com.example.interviewsimulator.service;
 
+import com.example.interviewsimulator.config.CacheConfig;
+import com.example.interviewsimulator.model.FeedbackSummary;
+import com.example.interviewsimulator.model.InterviewHistoryBucket;
 import com.example.interviewsimulator.model.UserStats;
+import com.example.interviewsimulator.repository.InterviewHistoryRepository;
 import com.example.interviewsimulator.repository.UserStatsRepository;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 @Service
 public class UserStatsService {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserStatsService.class);
+
     @Autowired
     private UserStatsRepository repository;
 
+    @Autowired
+    private InterviewHistoryRepository historyRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TopicClassifier topicClassifier;
+
+    @Value("${app.stats.recent-interviews:20}")
+    private int recentInterviews;
+
+    @Value("${app.stats.history-bucket-size:100}")
+    private int historyBucketSize;
+
+    @Value("${app.stats.recency-half-life-days:14}")
+    private long recencyHalfLifeDays;
+
+    private static final long MIN_RECENCY_HALF_LIFE_DAYS = 1;
+
+    @Value("${app.stats.projection.dedup-window:100}")
+    private int projectionDedupWindow;
+
+    private static final int SUMMARY_TOP_N = 5;
+
+    @PostConstruct
+    void validateSettings() {
+        if (recencyHalfLifeDays < MIN_RECENCY_HALF_LIFE_DAYS) {
+            throw new IllegalStateException("app.stats.recency-half-life-days must be at least "
+                + MIN_RECENCY_HALF_LIFE_DAYS + ", was " + recencyHalfLifeDays);
+        }
+    }
+
+    @Cacheable(cacheNames = CacheConfig.USER_STATS, key = "#email", unless = "#result == null")
     public UserStats findByEmail(String email) {
         return repository.findByEmail(email);
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.USER_STATS, CacheConfig.FEEDBACK}, key = "#stats.email")
     public UserStats save(UserStats stats) {
         return repository.save(stats);
     }
 
-    private String detectTopic(String question) {
-    question = question.toLowerCase();
+    /**
+     * Summarises the feedback a user has received so far. Strengths and weaknesses come
+     * from the recent-interview window. Cached per user and evicted whenever their
+     * stats are written.
+     */
+    @Cacheable(cacheNames = CacheConfig.FEEDBACK, key = "#email")
+    public FeedbackSummary getFeedbackSummary(String email) {
+        UserStats stats = repository.findByEmail(email);
+        List<UserStats.InterviewRecord> records =
+            (stats == null || stats.getPastInterviews() == null) ? Collections.emptyList() : stats.getPastInterviews();
 
-    if (question.contains("css") || question.contains("flex") || question.contains("grid")) return "CSS";
-    if (question.contains("javascript") || question.contains("js") || question.contains("closure")) return "JavaScript";
-    if (question.contains("react") || question.contains("component")) return "React";
-    if (question.contains("algorithm") || question.contains("time complexity") || question.contains("sort")) return "Algorithms";
-    if (question.contains("html")) return "HTML";
-    
-    return "General";
+        Map<String, Integer> strengthCounts = new HashMap<>();
+        Map<String, Integer> weaknessCounts = new HashMap<>();
+        double totalScore = 0;
+        for (UserStats.InterviewRecord record : records) {
+            totalScore += record.getScore();
+            if (record.getStrengths() != null) {
+                record.getStrengths().forEach(s -> strengthCounts.merge(s, 1, Integer::sum));
+            }
+            if (record.getWeaknesses() != null) {
+                record.getWeaknesses().forEach(w -> weaknessCounts.merge(w, 1, Integer::sum));
+            }
+        }
+
+        FeedbackSummary summary = new FeedbackSummary();
+        summary.setEmail(email);
+        if (stats != null && stats.getInterviewCount() > 0) {
+            summary.setTotalAnswers((int) stats.getInterviewCount());
+            summary.setAverageScore(stats.getScoreSum() / stats.getInterviewCount());
+        } else {
+            summary.setTotalAnswers(records.size());
+            summary.setAverageScore(records.isEmpty() ? 0 : totalScore / records.size());
+        }
+        summary.setTopStrengths(mostFrequent(strengthCounts));
+        summary.setTopWeaknesses(mostFrequent(weaknessCounts));
+        return summary;
+    }
+
+    private static List<String> mostFrequent(Map<String, Integer> counts) {
+        return counts.entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+            .limit(SUMMARY_TOP_N)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+    }
+
+   /**
+    * Records one answer with two small upserts whose cost does not depend on how much
+    * history the user already has: running counters and per-topic statistics (see
+    * {@link UserStats.TopicStats}) are bumped with {@code $inc} and the record is pushed
+    * onto the capped recent window, then the record is appended to the user's open
+    * history bucket.
+    *
+    * <p>Records carrying a {@code responseId} are applied at most once: the stats
+    * update only matches while the id is not among the user's recent
+    * {@code projectedIds}, and pushes it there in the same write. A replay of an
+    * already counted response only fills in its history record if that is missing.
+    *
+    * <p>The update only matches documents whose history is already bucketed, since it
+    * caps the embedded history, and whose aggregates are backfilled, since it
+    * increments them. A legacy document is brought up to date first (see
+    * {@link #migrateHistoryToBuckets()} and {@link #backfillAggregates()}), so no record
+    * is trimmed before it was copied and no answer is counted on top of missing totals.
+    * Likewise it only matches while the topic's recent sums are on the current recency
+    * epoch and half-life; otherwise they are rebased first (see {@link UserStats.TopicStats}).
+    *
+    * @return false if the record had already been counted
+    */
+   @CacheEvict(cacheNames = {CacheConfig.USER_STATS, CacheConfig.FEEDBACK}, key = "#email")
+   public boolean updateInterviewStats(String email, UserStats.InterviewRecord record) {
+    String responseId = record.getResponseId();
+    String topic = topicKey(topicClassifier.primaryTopic(record.getQuestion()));
+    long halfLife = recencyHalfLifeMillis();
+    long epoch = UserStats.TopicStats.recencyEpoch(System.currentTimeMillis(), halfLife);
+    String topicPath = "topicStats." + topic;
+    Query query = Query.query(Criteria.where("_id").is(email)
+        .and("historyBucketed").is(true)
+        .and("aggregatesBackfilled").is(true)
+        .orOperator(Criteria.where(topicPath).exists(false),
+            Criteria.where(topicPath + ".recencyEpoch").is(epoch).and(topicPath + ".recencyHalfLife").is(halfLife)));
+    Update update = interviewUpdate(record, topic, recentInterviews, halfLife, epoch);
+    if (responseId != null) {
+        query.addCriteria(Criteria.where("projectedIds").ne(responseId));
+        update.push("projectedIds").slice(-projectionDedupWindow).each(responseId);
+    }
+    boolean applied = upsertStats(email, responseId, topic, epoch, query, update);
+    if (applied || !inHistory(email, responseId)) {
+        appendToHistory(email, record);
+    }
+    logger.debug("Recorded interview for {}{}", email, applied ? "" : " (already counted)");
+    return applied;
 }
 
-   public void updateInterviewStats(String email, UserStats.InterviewRecord record) {
-    UserStats stats = repository.findByEmail(email);
+   // With guards in the query, an existing document that does not match makes the
+   // upsert try to insert a second one, which fails on the _id index
+   private boolean upsertStats(String email, String responseId, String topic, long epoch, Query query, Update update) {
+    for (int attempt = 1; ; attempt++) {
+        try {
+            mongoTemplate.upsert(query, update, UserStats.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            if (upgradeLegacy(email)) {
+                continue;
+            }
+            if (responseId != null && alreadyProjected(email, responseId)) {
+                return false;
+            }
+            if (attempt >= 3) {
+                throw e;
+            }
+            // Either the topic's recent sums are on an older epoch or half-life, or this
+            // lost a race with the user's first upsert and the document exists now
+            rebaseRecency(email, topic, epoch);
+        }
+    }
+}
 
-    if (stats == null) {
-        stats = new UserStats();
-        stats.setEmail(email);
-        stats.setName("Unknown User");
-        stats.setPastInterviews(new ArrayList<>());
+   // Moves one topic's recent sums onto the current epoch and half-life. Guarded by the
+   // values read, so a concurrent answer or rebase makes this a no-op.
+   private void rebaseRecency(String email, String topic, long epoch) {
+    String topicPath = "topicStats." + topic;
+    Query read = Query.query(Criteria.where("_id").is(email));
+    read.fields().include(topicPath);
+    UserStats current = mongoTemplate.findOne(read, UserStats.class);
+    UserStats.TopicStats stats = current != null && current.getTopicStats() != null
+        ? current.getTopicStats().get(topic) : null;
+    long halfLife = recencyHalfLifeMillis();
+    if (stats == null || (stats.getRecencyEpoch() == epoch && stats.getRecencyHalfLife() == halfLife)) {
+        return;
+    }
+    Query unchanged = Query.query(Criteria.where("_id").is(email)
+        .and(topicPath + ".recentWeight").is(stats.getRecentWeight())
+        .and(topicPath + ".recencyHalfLife").is(stats.getRecencyHalfLife() > 0 ? stats.getRecencyHalfLife() : null)
+        .and(topicPath + ".recencyEpoch").is(stats.getRecencyHalfLife() > 0 ? stats.getRecencyEpoch() : null));
+    if (!stats.rebase(epoch, halfLife)) {
+        // Decayed with another half-life: recompute this topic's recent sums from the history
+        stats = recentFromHistory(email, topic, epoch, halfLife);
+        logger.info("Recomputed recent {} scores of {} for a new recency half-life", topic, email);
     }
+    mongoTemplate.updateFirst(unchanged, new Update()
+        .set(topicPath + ".recentSum", stats.getRecentSum())
+        .set(topicPath + ".recentWeight", stats.getRecentWeight())
+        .set(topicPath + ".recencyEpoch", epoch)
+        .set(topicPath + ".recencyHalfLife", halfLife), UserStats.class);
+}
 
-    if (stats.getPastInterviews() == null) {
-        stats.setPastInterviews(new ArrayList<>());
+   private UserStats.TopicStats recentFromHistory(String email, String topic, long epoch, long halfLife) {
+    UserStats.TopicStats stats = new UserStats.TopicStats();
+    for (InterviewHistoryBucket bucket : mongoTemplate.find(
+            Query.query(Criteria.where("email").is(email)), InterviewHistoryBucket.class)) {
+        if (bucket.getRecords() == null) {
+            continue;
+        }
+        for (UserStats.InterviewRecord record : bucket.getRecords()) {
+            if (topic.equals(topicKey(topicClassifier.primaryTopic(record.getQuestion())))) {
+                stats.record(record.getScore(), record.getTimestamp(), epoch, halfLife);
+            }
+        }
     }
+    return stats;
+}
 
-    // Add new interview record
-    stats.getPastInterviews().add(record);
+   // Brings one document written by an older version up to date; false if it already is.
+   // Read as a raw document because the entity defaults the markers to true.
+   private boolean upgradeLegacy(String email) {
+    Query query = Query.query(Criteria.where("_id").is(email).orOperator(
+        Criteria.where("historyBucketed").ne(true), Criteria.where("aggregatesBackfilled").ne(true)));
+    query.fields().include("historyBucketed", "aggregatesBackfilled", "interviewCount");
+    Document legacy = mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(UserStats.class));
+    if (legacy == null) {
+        return false;
+    }
+    if (!Boolean.TRUE.equals(legacy.get("historyBucketed"))) {
+        migrateToBuckets(mongoTemplate.findById(email, UserStats.class));
+        logger.info("Moved embedded history of {} into interview_history", email);
+    }
+    if (!Boolean.TRUE.equals(legacy.get("aggregatesBackfilled"))) {
+        recomputeAggregates(email, legacy.get("interviewCount"));
+    }
+    return true;
+}
+
+   // The full history is in the buckets once the document is migrated. Guarded by the
+   // interviewCount read before the buckets, so a concurrent answer makes this a no-op.
+   private boolean recomputeAggregates(String email, Object interviewCount) {
+    List<UserStats.InterviewRecord> history = new ArrayList<>();
+    for (InterviewHistoryBucket bucket : mongoTemplate.find(
+            Query.query(Criteria.where("email").is(email)), InterviewHistoryBucket.class)) {
+        if (bucket.getRecords() != null) {
+            history.addAll(bucket.getRecords());
+        }
+    }
+    Criteria unchanged = interviewCount == null
+        ? Criteria.where("interviewCount").exists(false)
+        : Criteria.where("interviewCount").is(interviewCount);
+    Query sameDocument = Query.query(Criteria.where("_id").is(email)
+        .and("aggregatesBackfilled").ne(true)
+        .andOperator(unchanged));
+    long halfLife = recencyHalfLifeMillis();
+    long epoch = UserStats.TopicStats.recencyEpoch(System.currentTimeMillis(), halfLife);
+    Update update = aggregateUpdate(history, topicClassifier, halfLife, epoch).set("aggregatesBackfilled", true);
+    return mongoTemplate.updateFirst(sameDocument, update, UserStats.class).getModifiedCount() > 0;
+}
 
-    // ✅ Calculate progress (average score × 10 to get %)
-    double totalScore = stats.getPastInterviews().stream()
-        .mapToDouble(UserStats.InterviewRecord::getScore)
-        .sum();
-    double avgScore = totalScore / stats.getPastInterviews().size();
-    stats.setProgress(avgScore * 10);
+   private boolean alreadyProjected(String email, String responseId) {
+    return mongoTemplate.exists(Query.query(Criteria.where("_id").is(email).and("projectedIds").is(responseId)),
+        UserStats.class);
+}
+
+   private boolean inHistory(String email, String responseId) {
+    return responseId != null && mongoTemplate.exists(
+        Query.query(Criteria.where("email").is(email).and("records.responseId").is(responseId)),
+        InterviewHistoryBucket.class);
+}
 
-    // ✅ Set average response time (mocked for now)
-    stats.setAvgResponseTime(6.5); // You can calculate this dynamically later
+   // The per-answer stats update; its size does not depend on the user's history
+   static Update interviewUpdate(UserStats.InterviewRecord record, String topic, int recentInterviews,
+                                 long halfLifeMillis, long epoch) {
+    String topicPath = "topicStats." + topicKey(topic);
+    double score = record.getScore();
+    double weight = UserStats.TopicStats.recencyWeight(record.getTimestamp(), epoch, halfLifeMillis);
 
-    // ✅ Calculate skill levels
-    Map<String, Integer> skillMap = new HashMap<>();
-    for (UserStats.InterviewRecord ir : stats.getPastInterviews()) {
-        String topic = detectTopic(ir.getQuestion());
-        int score = (int) Math.round(ir.getScore());
+    Update update = new Update()
+        .setOnInsert("name", "Unknown User")
+        .set("avgResponseTime", 6.5) // mocked for now
+        .inc("interviewCount", 1)
+        .inc("scoreSum", score)
+        .inc(topicPath + ".count", 1)
+        .inc(topicPath + ".scoreSum", score)
+        .inc(topicPath + ".sumSquares", score * score)
+        .inc(topicPath + ".recentSum", score * weight)
+        .inc(topicPath + ".recentWeight", weight)
+        .set(topicPath + ".recencyEpoch", epoch)
+        .set(topicPath + ".recencyHalfLife", halfLifeMillis)
+        .setOnInsert("historyBucketed", true)
+        .setOnInsert("aggregatesBackfilled", true);
+    update.push("pastInterviews").slice(-recentInterviews).each(record);
+    return update;
+}
 
-        // If multiple attempts exist for same topic, take average
-        skillMap.merge(topic, score, (prev, newScore) -> (prev + newScore) / 2);
+   private void appendToHistory(String email, UserStats.InterviewRecord record) {
+    Query openBucket = Query.query(Criteria.where("email").is(email)
+        .and("count").lt(historyBucketSize)
+        .and("sealed").ne(true));
+    Update update = new Update()
+        .push("records", record)
+        .inc("count", 1)
+        .min("firstTimestamp", record.getTimestamp())
+        .max("lastTimestamp", record.getTimestamp());
+    mongoTemplate.upsert(openBucket, update, InterviewHistoryBucket.class);
+}
+
+   /**
+    * One page of a user's full interview history, newest first. Each page is one
+    * history bucket, so the page size is bounded by the bucket size.
+    */
+   public List<UserStats.InterviewRecord> getInterviewHistory(String email, int page) {
+    List<InterviewHistoryBucket> buckets =
+        historyRepository.findByEmailOrderByFirstTimestampDesc(email, PageRequest.of(page, 1));
+    if (buckets.isEmpty() || buckets.get(0).getRecords() == null) {
+        return Collections.emptyList();
     }
-    stats.setSkillLevels(skillMap);
+    List<UserStats.InterviewRecord> records = new ArrayList<>(buckets.get(0).getRecords());
+    records.sort(Comparator.comparingLong(UserStats.InterviewRecord::getTimestamp).reversed());
+    return records;
+}
+
+   /**
+    * Moves the embedded history of pre-bucketing documents into sealed
+    * {@code interview_history} buckets and trims {@code pastInterviews} down to the
+    * recent window. Records newer than the user's oldest existing bucket were already
+    * bucketed when they were written and are skipped.
+    *
+    * @return number of documents migrated
+    */
+   public int migrateHistoryToBuckets() {
+    Query legacy = Query.query(Criteria.where("historyBucketed").ne(true));
+    int migrated = 0;
+    for (UserStats stats : mongoTemplate.find(legacy, UserStats.class)) {
+        migrateToBuckets(stats);
+        migrated++;
+    }
+    return migrated;
+}
+
+   private void migrateToBuckets(UserStats stats) {
+    String email = stats.getEmail();
+    InterviewHistoryBucket oldest = historyRepository.findFirstByEmailOrderByFirstTimestampAsc(email);
+    long cutoff = oldest == null ? Long.MAX_VALUE : oldest.getFirstTimestamp();
 
-    System.out.println("✅ Added interview for: " + email);
-    System.out.println("➡️ Progress: " + stats.getProgress());
-    System.out.println("📊 SkillLevels: " + skillMap);
+    List<UserStats.InterviewRecord> legacyRecords = new ArrayList<>();
+    if (stats.getPastInterviews() != null) {
+        for (UserStats.InterviewRecord record : stats.getPastInterviews()) {
+            if (record.getTimestamp() < cutoff) {
+                legacyRecords.add(record);
+            }
+        }
+    }
+    legacyRecords.sort(Comparator.comparingLong(UserStats.InterviewRecord::getTimestamp));
+
+    List<InterviewHistoryBucket> buckets = new ArrayList<>();
+    for (int from = 0; from < legacyRecords.size(); from += historyBucketSize) {
+        List<UserStats.InterviewRecord> chunk =
+            legacyRecords.subList(from, Math.min(from + historyBucketSize, legacyRecords.size()));
+        InterviewHistoryBucket bucket = new InterviewHistoryBucket();
+        bucket.setEmail(email);
+        bucket.setCount(chunk.size());
+        bucket.setFirstTimestamp(chunk.get(0).getTimestamp());
+        bucket.setLastTimestamp(chunk.get(chunk.size() - 1).getTimestamp());
+        bucket.setSealed(true);
+        bucket.setRecords(new ArrayList<>(chunk));
+        buckets.add(bucket);
+    }
+    if (!buckets.isEmpty()) {
+        mongoTemplate.insertAll(buckets);
+    }
+
+    Update update = new Update().set("historyBucketed", true);
+    update.push("pastInterviews").slice(-recentInterviews).each();
+    mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(email)), update, UserStats.class);
+}
+
+   /**
+    * Recomputes the running aggregates of documents not marked
+    * {@code aggregatesBackfilled} from the user's full history, migrating the history
+    * into buckets first where needed. Answers recorded before the backfill ran are part
+    * of that history, so they are neither lost nor counted twice. Documents are also
+    * brought up to date on their user's next answer, so a failed run loses nothing.
+    *
+    * @return number of documents updated
+    */
+   public int backfillAggregates() {
+    Query legacy = Query.query(Criteria.where("aggregatesBackfilled").ne(true));
+    legacy.fields().include("_id");
+    int updated = 0;
+    for (Document stats : mongoTemplate.find(legacy, Document.class, mongoTemplate.getCollectionName(UserStats.class))) {
+        if (upgradeLegacy(stats.getString("_id"))) {
+            updated++;
+        }
+    }
+    return updated;
+}
+
+   // Full recompute of the aggregates from a history; linear in its length
+   static Update aggregateUpdate(List<UserStats.InterviewRecord> history, TopicClassifier topics, long halfLifeMillis,
+                                 long epoch) {
+    double scoreSum = 0;
+    Map<String, UserStats.TopicStats> topicStats = new HashMap<>();
+    for (UserStats.InterviewRecord record : history) {
+        scoreSum += record.getScore();
+        topicStats.computeIfAbsent(topicKey(topics.primaryTopic(record.getQuestion())), t -> new UserStats.TopicStats())
+            .record(record.getScore(), record.getTimestamp(), epoch, halfLifeMillis);
+    }
+    return new Update()
+        .set("interviewCount", history.size())
+        .set("scoreSum", scoreSum)
+        .set("topicStats", topicStats);
+}
+
+   private long recencyHalfLifeMillis() {
+    return TimeUnit.DAYS.toMillis(recencyHalfLifeDays);
+}
 
-    repository.save(stats);
+   // Topic names become part of a Mongo field path, so they must not contain '.' or start with '$'
+   private static String topicKey(String topic) {
+    String key = topic.replace('.', '_');
+    return key.startsWith("$") ? "_" + key.substring(1) : key;
 }
 
 }
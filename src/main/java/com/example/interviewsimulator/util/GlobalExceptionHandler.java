@@ -2,6 +2,8 @@ package com.example.interviewsimulator.util;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.example.interviewsimulator.service.GeminiUnavailableException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -68,6 +70,25 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.SERVICE_UNAVAILABLE);
     }
 
+    @ExceptionHandler(GeminiUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleGeminiUnavailableException(
+            GeminiUnavailableException ex, WebRequest request) {
+        
+        logger.warn("Gemini unavailable: {}", ex.getMessage());
+        
+        Map<String, Object> errorDetails = new HashMap<>();
+        errorDetails.put("timestamp", LocalDateTime.now());
+        errorDetails.put("message", "AI service temporarily unavailable");
+        errorDetails.put("details", "Please try again shortly");
+        errorDetails.put("path", request.getDescription(false));
+        errorDetails.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfterMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(errorDetails);
+    }
+
     @ExceptionHandler(SessionExpiredException.class)
     public ResponseEntity<Map<String, Object>> handleSessionExpiredException(
             SessionExpiredException ex, WebRequest request) {
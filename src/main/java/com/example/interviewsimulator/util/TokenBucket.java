@@ -0,0 +1,75 @@
+package com.example.interviewsimulator.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket. The bucket holds at most {@code capacity} tokens and refills
+ * continuously at {@code tokensPerPeriod} per {@code period}. State is a single
+ * immutable snapshot swapped with CAS, so each bucket costs a constant amount of memory
+ * and concurrent callers never block each other.
+ */
+public final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    private static final class State {
+        final double tokens;
+        final long refilledAt;
+
+        State(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+
+    public TokenBucket(long capacity, long tokensPerPeriod, long period, TimeUnit unit, long nowNanos) {
+        if (capacity <= 0 || tokensPerPeriod <= 0 || period <= 0) {
+            throw new IllegalArgumentException("Token bucket capacity and refill rate must be positive");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = (double) tokensPerPeriod / unit.toNanos(period);
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    /**
+     * Tries to take one token.
+     *
+     * @return 0 if a token was taken, otherwise the number of nanoseconds until one
+     *         becomes available
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            double tokens = refill(current, nowNanos);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, Math.max(nowNanos, current.refilledAt)))) {
+                return 0;
+            }
+        }
+    }
+
+    /** Returns a token taken by {@link #tryConsume(long)} that ended up not being used. */
+    public void refund() {
+        while (true) {
+            State current = state.get();
+            State updated = new State(Math.min(capacity, current.tokens + 1), current.refilledAt);
+            if (state.compareAndSet(current, updated)) {
+                return;
+            }
+        }
+    }
+
+    public double availableTokens(long nowNanos) {
+        return refill(state.get(), nowNanos);
+    }
+
+    private double refill(State current, long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - current.refilledAt);
+        return Math.min(capacity, current.tokens + elapsed * tokensPerNano);
+    }
+}
@@ -1,22 +1,55 @@
 package com.example.interviewsimulator.controller;
 
 import com.example.interviewsimulator.model.AnswerRequest;
+import com.example.interviewsimulator.model.BatchEvaluationRequest;
+import com.example.interviewsimulator.model.InterviewResponse;
+import com.example.interviewsimulator.model.InterviewScoreboard;
+import com.example.interviewsimulator.model.InterviewState;
 import com.example.interviewsimulator.model.GeminiResponse;
+import com.example.interviewsimulator.model.User;
+import com.example.interviewsimulator.service.BatchEvaluationService;
+import com.example.interviewsimulator.service.EvaluationCache;
+import com.example.interviewsimulator.service.InterviewResponseWriter;
+import com.example.interviewsimulator.service.InterviewStateCodec;
+import com.example.interviewsimulator.service.PromptTemplates;
+import com.example.interviewsimulator.service.EvaluationParser;
 import com.example.interviewsimulator.service.GeminiService;
+import com.example.interviewsimulator.service.GeminiUnavailableException;
+import com.example.interviewsimulator.service.QuestionPoolService;
+import com.example.interviewsimulator.service.UserStatsService;
+import com.example.interviewsimulator.util.GlobalExceptionHandler;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -26,6 +59,30 @@ public class InterviewControllerTest {
     @Mock
     private GeminiService geminiService;
 
+    @Mock
+    private InterviewResponseWriter interviewResponseWriter;
+
+    @Mock
+    private UserStatsService userStatsService;
+
+    @Mock
+    private QuestionPoolService questionPoolService;
+
+    @Mock
+    private InterviewStateCodec stateCodec;
+
+    @Mock
+    private BatchEvaluationService batchEvaluationService;
+
+    @Mock
+    private EvaluationCache evaluationCache;
+
+    @Spy
+    private EvaluationParser evaluationParser = new EvaluationParser(new ObjectMapper(), new SimpleMeterRegistry());
+
+    @Spy
+    private PromptTemplates promptTemplates = new PromptTemplates("classpath:prompts/", new SimpleMeterRegistry());
+
     @InjectMocks
     private InterviewController interviewController;
 
@@ -36,6 +93,7 @@ public class InterviewControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(evaluationCache.get(any())).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
         mockMvc = MockMvcBuilders.standaloneSetup(interviewController).build();
         objectMapper = new ObjectMapper();
         session = new MockHttpSession();
@@ -44,45 +102,172 @@ public class InterviewControllerTest {
     @Test
     void testStartInterview() throws Exception {
         String expectedQuestion = "What is your experience with Java?";
-        when(geminiService.askGemini(anyString())).thenReturn(expectedQuestion);
+        when(geminiService.generateQuestionAsync(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(expectedQuestion));
 
-        mockMvc.perform(get("/api/interview/startInterview")
+        MvcResult result = mockMvc.perform(get("/api/interview/startInterview")
                 .param("role", "backend developer")
                 .session(session))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().string(expectedQuestion));
     }
 
+    @Test
+    void testStartInterviewServedFromPool() throws Exception {
+        String pooledQuestion = "How would you design a rate limiter?";
+        when(questionPoolService.poll("backend developer")).thenReturn(Optional.of(pooledQuestion));
+
+        MvcResult result = mockMvc.perform(get("/api/interview/startInterview")
+                .param("role", "backend developer")
+                .session(session))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(pooledQuestion));
+        verify(geminiService, never()).generateQuestionAsync(anyString(), anyString());
+    }
+
     @Test
     void testSubmitAnswer() throws Exception {
         AnswerRequest request = new AnswerRequest();
         request.setAnswer("I have 3 years of experience with Java");
         request.setQuestion("What is your experience with Java?");
         request.setRole("backend developer");
+        session.setAttribute("user", new User("jane@example.com", "Jane"));
 
         String mockResponse = "{\"score\": 8, \"strengths\": [\"Clear answer\"], \"weaknesses\": [\"Could be more specific\"], \"feedback\": \"Good response\"}";
-        when(geminiService.askGemini(anyString())).thenReturn(mockResponse);
+        when(geminiService.evaluateAsync(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(mockResponse));
 
-        mockMvc.perform(post("/api/interview/submitAnswer")
+        MvcResult result = mockMvc.perform(post("/api/interview/submitAnswer")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request))
                 .session(session))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.score").value(8))
                 .andExpect(jsonPath("$.strengths[0]").value("Clear answer"))
                 .andExpect(jsonPath("$.weaknesses[0]").value("Could be more specific"))
                 .andExpect(jsonPath("$.feedback").value("Good response"));
+
+        verify(interviewResponseWriter).enqueue(any(InterviewResponse.class));
+        verify(evaluationCache).put(any(), argThat(evaluation -> evaluation.getScore() == 8));
+        verifyNoInteractions(userStatsService);
+    }
+
+    @Test
+    void testSubmitAnswerServedFromEvaluationCache() throws Exception {
+        AnswerRequest request = new AnswerRequest();
+        request.setAnswer("I have 3 years of experience with Java");
+        request.setQuestion("What is your experience with Java?");
+        request.setRole("backend developer");
+        when(evaluationCache.key(any(AnswerRequest.class))).thenReturn("cached-key");
+        when(evaluationCache.get("cached-key")).thenReturn(CompletableFuture.completedFuture(Optional.of(
+            new GeminiResponse(6, Arrays.asList("Honest"), Arrays.asList(), "Fine"))));
+
+        MvcResult result = mockMvc.perform(post("/api/interview/submitAnswer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))
+                .session(session))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.score").value(6))
+                .andExpect(jsonPath("$.feedback").value("Fine"));
+
+        verify(geminiService, never()).evaluateAsync(anyString(), anyString());
+        verify(evaluationCache, never()).put(anyString(), any());
+        verify(interviewResponseWriter).enqueue(any(InterviewResponse.class));
+    }
+
+    @Test
+    void testEvaluateBatchRecordsAllAnswersWithOneWrite() throws Exception {
+        AnswerRequest first = new AnswerRequest();
+        first.setQuestion("What is a deadlock?");
+        first.setAnswer("Threads waiting on each other");
+        AnswerRequest second = new AnswerRequest();
+        second.setQuestion("What is a mutex?");
+        second.setAnswer("A lock");
+        BatchEvaluationRequest request = new BatchEvaluationRequest();
+        request.setRole("backend developer");
+        request.setAnswers(List.of(first, second));
+        session.setAttribute("user", new User("jane@example.com", "Jane"));
+
+        when(batchEvaluationService.evaluate(eq("backend developer"), anyList())).thenReturn(CompletableFuture.completedFuture(List.of(
+            new GeminiResponse(7, List.of("Correct"), List.of(), "Good"),
+            new GeminiResponse(4, List.of(), List.of("Too short"), "Expand"))));
+
+        MvcResult result = mockMvc.perform(post("/api/interview/evaluateBatch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))
+                .session(session))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].score").value(7))
+                .andExpect(jsonPath("$[1].feedback").value("Expand"));
+
+        verify(interviewResponseWriter).writeAll(argThat(responses -> responses.size() == 2
+            && "backend developer".equals(responses.get(1).getRole())
+            && "jane@example.com".equals(responses.get(0).getUserEmail())));
+        verify(interviewResponseWriter, never()).enqueue(any());
+        InterviewScoreboard scoreboard = (InterviewScoreboard) session.getAttribute(InterviewController.SCOREBOARD_ATTRIBUTE);
+        assertEquals(11, scoreboard.getScoreSum());
+        assertEquals(2, scoreboard.getCount());
+    }
+
+    @Test
+    void testSubmitAnswerStream() throws Exception {
+        AnswerRequest request = new AnswerRequest();
+        request.setAnswer("I have 3 years of experience with Java");
+        request.setQuestion("What is your experience with Java?");
+        request.setRole("backend developer");
+
+        String part1 = "{\"score\": 7, \"strengths\": [\"Concise\"], ";
+        String part2 = "\"weaknesses\": [\"No examples\"], \"feedback\": \"Decent\"}";
+        when(geminiService.streamEvaluationAsync(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            Consumer<String> onChunk = invocation.getArgument(2);
+            onChunk.accept(part1);
+            onChunk.accept(part2);
+            return CompletableFuture.completedFuture(part1 + part2);
+        });
+
+        MvcResult result = mockMvc.perform(post("/api/interview/submitAnswer/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))
+                .session(session))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("event:token")))
+                .andExpect(content().string(containsString("event:result")))
+                .andExpect(content().string(containsString("\"score\":7")));
     }
 
     @Test
     void testGetNextQuestion() throws Exception {
         String expectedQuestion = "Tell me about a challenging project you worked on";
-        when(geminiService.askGemini(anyString())).thenReturn(expectedQuestion);
+        when(geminiService.generateQuestionAsync(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(expectedQuestion));
 
-        mockMvc.perform(get("/api/interview/nextQuestion")
+        MvcResult result = mockMvc.perform(get("/api/interview/nextQuestion")
                 .param("role", "software engineer")
                 .param("questionIndex", "1")
                 .session(session))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().string(expectedQuestion));
     }
@@ -90,16 +275,18 @@ public class InterviewControllerTest {
     @Test
     void testGetScore() throws Exception {
         // Setup session with feedback
-        GeminiResponse feedback1 = new GeminiResponse(8, Arrays.asList("Clear"), Arrays.asList("Too short"), "Good");
-        GeminiResponse feedback2 = new GeminiResponse(7, Arrays.asList("Detailed"), Arrays.asList("Unclear"), "Okay");
-        session.setAttribute("feedbackList", Arrays.asList(feedback1, feedback2));
+        InterviewScoreboard scoreboard = new InterviewScoreboard(10);
+        scoreboard.record(new GeminiResponse(8, Arrays.asList("Clear"), Arrays.asList("Too short"), "Good"));
+        scoreboard.record(new GeminiResponse(7, Arrays.asList("Detailed"), Arrays.asList("Unclear"), "Okay"));
+        session.setAttribute("scoreboard", scoreboard);
 
         mockMvc.perform(get("/api/interview/score")
                 .session(session))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.score").value(15))
                 .andExpect(jsonPath("$.totalQuestions").value(2))
-                .andExpect(jsonPath("$.maxScore").value(20));
+                .andExpect(jsonPath("$.maxScore").value(20))
+                .andExpect(jsonPath("$.strengths.length()").value(2));
     }
 
     @Test
@@ -110,15 +297,21 @@ public class InterviewControllerTest {
         request.setRole("test role");
 
         // Mock invalid JSON response from Gemini
-        when(geminiService.askGemini(anyString())).thenReturn("Invalid JSON response");
+        when(geminiService.evaluateAsync(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture("Invalid JSON response"));
 
-        mockMvc.perform(post("/api/interview/submitAnswer")
+        MvcResult result = mockMvc.perform(post("/api/interview/submitAnswer")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request))
                 .session(session))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.score").value(5))
-                .andExpect(jsonPath("$.feedback").value("Please try to be more specific in your answer."));
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadGateway())
+                .andExpect(jsonPath("$.score").value(0))
+                .andExpect(jsonPath("$.feedback").value("Sorry, there was a technical issue. Please try again."));
+
+        verify(interviewResponseWriter, never()).enqueue(any());
     }
 
     @Test
@@ -129,14 +322,114 @@ public class InterviewControllerTest {
         request.setRole("test role");
 
         // Mock exception from Gemini service
-        when(geminiService.askGemini(anyString())).thenThrow(new RuntimeException("Service unavailable"));
+        when(geminiService.evaluateAsync(anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Service unavailable")));
 
-        mockMvc.perform(post("/api/interview/submitAnswer")
+        MvcResult result = mockMvc.perform(post("/api/interview/submitAnswer")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request))
                 .session(session))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.score").value(0))
                 .andExpect(jsonPath("$.feedback").value("Sorry, there was a technical issue. Please try again."));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSubmitAnswerWhenGeminiUnavailable() throws Exception {
+        AnswerRequest request = new AnswerRequest();
+        request.setAnswer("Test answer");
+        request.setQuestion("Test question");
+        request.setRole("test role");
+
+        when(geminiService.evaluateAsync(anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new GeminiUnavailableException("Gemini circuit breaker is open", 30000)));
+
+        MvcResult result = mockMvc.perform(post("/api/interview/submitAnswer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))
+                .session(session))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.score").value(0));
+    }
+
+    @Test
+    void testSubmitAnswerStatelessReissuesState() throws Exception {
+        InterviewStateCodec codec = new InterviewStateCodec(true, "0123456789abcdef0123456789abcdef", 3600, true, 50);
+        ReflectionTestUtils.setField(interviewController, "stateCodec", codec);
+        InterviewState state = new InterviewState("backend developer", "jane@example.com");
+        state.recordScore(6);
+
+        AnswerRequest request = new AnswerRequest();
+        request.setAnswer("I have 3 years of experience with Java");
+        request.setQuestion("What is your experience with Java?");
+        request.setRole("backend developer");
+        String mockResponse = "{\"score\": 8, \"strengths\": [\"Clear\"], \"weaknesses\": [], \"feedback\": \"Good\"}";
+        when(geminiService.evaluateAsync(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+        MvcResult result = mockMvc.perform(post("/api/interview/submitAnswer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))
+                .header(InterviewStateCodec.HEADER, codec.encode(state)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult dispatched = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.score").value(8))
+                .andReturn();
+
+        InterviewState reissued = codec.decode(dispatched.getResponse().getHeader(InterviewStateCodec.HEADER));
+        assertEquals(14, reissued.getScoreSum());
+        assertEquals(2, reissued.getCount());
+        assertNull(result.getRequest().getSession(false), "stateless mode must not create a session");
+        verify(interviewResponseWriter).enqueue(argThat(r -> "jane@example.com".equals(r.getUserEmail())));
+    }
+
+    @Test
+    void testStatelessTokenForAnotherRoleIsRejected() throws Exception {
+        InterviewStateCodec codec = new InterviewStateCodec(true, "0123456789abcdef0123456789abcdef", 3600, true, 50);
+        ReflectionTestUtils.setField(interviewController, "stateCodec", codec);
+        InterviewState state = new InterviewState("backend developer", "jane@example.com");
+
+        AnswerRequest request = new AnswerRequest();
+        request.setAnswer("I have 3 years of experience with Java");
+        request.setQuestion("What is your experience with Java?");
+        request.setRole("frontend developer");
+        MockMvc withAdvice = MockMvcBuilders.standaloneSetup(interviewController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        withAdvice.perform(post("/api/interview/submitAnswer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))
+                .header(InterviewStateCodec.HEADER, codec.encode(state)))
+                .andExpect(status().isBadRequest());
+
+        verify(geminiService, never()).evaluateAsync(anyString(), anyString());
+    }
+
+    @Test
+    void testStatelessScoreReportsTotalsWithEmptyTraits() throws Exception {
+        InterviewStateCodec codec = new InterviewStateCodec(true, "0123456789abcdef0123456789abcdef", 3600, true, 50);
+        ReflectionTestUtils.setField(interviewController, "stateCodec", codec);
+        InterviewState state = new InterviewState("backend developer", "jane@example.com");
+        state.recordScore(6);
+        state.recordScore(8);
+
+        mockMvc.perform(get("/api/interview/score")
+                .header(InterviewStateCodec.HEADER, codec.encode(state)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.score").value(14))
+                .andExpect(jsonPath("$.totalQuestions").value(2))
+                .andExpect(jsonPath("$.strengths").isEmpty())
+                .andExpect(jsonPath("$.weaknesses").isEmpty());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.interviewsimulator.controller;
+
+import com.example.interviewsimulator.repository.InterviewResponseRepository;
+import com.example.interviewsimulator.service.BatchEvaluationService;
+import com.example.interviewsimulator.service.UserStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class UserStatsControllerTest {
+
+    @Mock
+    private UserStatsService service;
+
+    @Mock
+    private InterviewResponseRepository interviewResponseRepository;
+
+    @Mock
+    private BatchEvaluationService batchEvaluationService;
+
+    @InjectMocks
+    private UserStatsController userStatsController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(userStatsController).build();
+    }
+
+    @Test
+    void testRegradingSomeoneElsesAnswersIsForbidden() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/user/victim@example.com/responses/regrade")
+                .principal(loggedInAs("attacker@example.com")))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isForbidden());
+
+        verifyNoInteractions(interviewResponseRepository, batchEvaluationService);
+    }
+
+    @Test
+    void testRegradingWithoutLoginIsForbidden() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/user/victim@example.com/responses/regrade"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isForbidden());
+
+        verifyNoInteractions(interviewResponseRepository, batchEvaluationService);
+    }
+
+    private static OAuth2AuthenticationToken loggedInAs(String email) {
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        DefaultOAuth2User user = new DefaultOAuth2User(authorities, Map.of("email", email), "email");
+        return new OAuth2AuthenticationToken(user, authorities, "google");
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.interviewsimulator.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InterviewScoreboardTest {
+
+    @Test
+    void testKeepsRunningTotalsAndBoundedDistinctTraits() {
+        InterviewScoreboard scoreboard = new InterviewScoreboard(2);
+        scoreboard.record(new GeminiResponse(6, List.of("Clear", "Concise"), List.of("Vague"), "ok"));
+        scoreboard.record(new GeminiResponse(9, List.of("Clear ", "Detailed"), null, "good"));
+
+        assertEquals(15, scoreboard.getScoreSum());
+        assertEquals(2, scoreboard.getCount());
+        // "Concise" is the least recently mentioned and is dropped once the set is full
+        assertEquals(List.of("Clear", "Detailed"), scoreboard.getStrengths());
+        assertEquals(List.of("Vague"), scoreboard.getWeaknesses());
+    }
+
+    @Test
+    void testConcurrentRecordsAreNotLost() throws InterruptedException {
+        InterviewScoreboard scoreboard = new InterviewScoreboard(5);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 2000; i++) {
+            String trait = "Trait " + (i % 20);
+            executor.execute(() -> scoreboard.record(new GeminiResponse(1, List.of(trait), List.of(trait), "ok")));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(2000, scoreboard.getScoreSum());
+        assertEquals(2000, scoreboard.getCount());
+        assertEquals(5, scoreboard.getStrengths().size());
+        assertEquals(5, scoreboard.getWeaknesses().size());
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.interviewsimulator.repository;
+
+import com.example.interviewsimulator.model.HistoryPage;
+import com.example.interviewsimulator.model.InterviewResponse;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against a real MongoDB in Docker; skipped when Docker is not available.
+ */
+@DataMongoTest
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = "spring.data.mongodb.auto-index-creation=true")
+public class InterviewResponseRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @Autowired
+    private InterviewResponseRepository repository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        List<InterviewResponse> responses = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            responses.add(response("jane@example.com", i % 2 == 0 ? "backend developer" : "data scientist", 1_000L * i));
+            responses.add(response("john@example.com", "backend developer", 1_000L * i));
+        }
+        // Two answers with the same timestamp exercise the _id tie-break
+        responses.add(response("jane@example.com", "backend developer", 24_000L));
+        repository.saveAll(responses);
+    }
+
+    @Test
+    void testCursorPaginationVisitsEveryResponseOnceNewestFirst() {
+        List<InterviewResponse> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            HistoryPage<InterviewResponse> page = repository.findHistory("jane@example.com", null, null, null, cursor, 10);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(26, seen.size());
+        assertEquals(26, seen.stream().map(InterviewResponse::getId).distinct().count());
+        for (int i = 1; i < seen.size(); i++) {
+            assertFalse(seen.get(i).getTimestamp().after(seen.get(i - 1).getTimestamp()));
+        }
+    }
+
+    @Test
+    void testRoleAndDateRangeFilters() {
+        HistoryPage<InterviewResponse> page = repository.findHistory("jane@example.com", "data scientist",
+                new Date(5_000L), new Date(15_000L), null, 100);
+
+        assertEquals(5, page.getItems().size());
+        assertNull(page.getNextCursor());
+        page.getItems().forEach(r -> assertEquals("data scientist", r.getRole()));
+    }
+
+    @Test
+    void testUserHistoryQueryUsesCompoundIndex() {
+        HistoryPage<InterviewResponse> first = repository.findHistory("jane@example.com", null, null, null, null, 5);
+        Query query = InterviewResponseRepositoryCustomImpl.historyQuery(
+                "jane@example.com", null, null, null, first.getNextCursor(), 5);
+
+        assertEquals("userEmail_timestamp", winningIndex(query));
+    }
+
+    @Test
+    void testRoleQueryUsesRoleIndex() {
+        Query query = InterviewResponseRepositoryCustomImpl.historyQuery(
+                null, "backend developer", new Date(0), new Date(10_000L), null, 5);
+
+        assertEquals("role_timestamp", winningIndex(query));
+    }
+
+    private String winningIndex(Query query) {
+        Document explain = mongoTemplate.getCollection("interview_responses")
+                .find(query.getQueryObject())
+                .sort(query.getSortObject())
+                .limit(query.getLimit())
+                .explain();
+        Document winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+        return findIndexName(winningPlan);
+    }
+
+    private static String findIndexName(Document stage) {
+        if (stage == null) {
+            return null;
+        }
+        if ("IXSCAN".equals(stage.getString("stage"))) {
+            return stage.getString("indexName");
+        }
+        Object input = stage.get("inputStage");
+        if (input instanceof Document) {
+            return findIndexName((Document) input);
+        }
+        Object inputs = stage.get("inputStages");
+        if (inputs instanceof List) {
+            for (Object child : (List<?>) inputs) {
+                String name = findIndexName((Document) child);
+                if (name != null) {
+                    return name;
+                }
+            }
+        }
+        Object queryPlan = stage.get("queryPlan");
+        return queryPlan instanceof Document ? findIndexName((Document) queryPlan) : null;
+    }
+
+    private static InterviewResponse response(String email, String role, long timestamp) {
+        InterviewResponse response = new InterviewResponse();
+        response.setUserEmail(email);
+        response.setRole(role);
+        response.setQuestion("Question at " + timestamp);
+        response.setAnswer("Answer");
+        response.setScore(7);
+        response.setTimestamp(new Date(timestamp));
+        return response;
+    }
+}
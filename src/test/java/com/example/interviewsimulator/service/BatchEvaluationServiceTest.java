@@ -0,0 +1,144 @@
+package com.example.interviewsimulator.service;
+
+import com.example.interviewsimulator.model.AnswerRequest;
+import com.example.interviewsimulator.model.GeminiResponse;
+import com.example.interviewsimulator.model.InterviewResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class BatchEvaluationServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final GeminiService geminiService = mock(GeminiService.class);
+
+    private final PromptTemplates templates = new PromptTemplates("classpath:prompts/", registry);
+
+    private BatchEvaluationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BatchEvaluationService(geminiService, templates,
+            new EvaluationParser(new ObjectMapper(), registry), registry, 2000, 3, 50);
+    }
+
+    @Test
+    void testSplitsByItemCountAndTokenBudget() {
+        List<AnswerRequest> answers = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            answers.add(answer("Question " + i, "Short answer " + i));
+        }
+        assertEquals(List.of(3, 3, 1), sizes(service.split("qa engineer", answers)));
+
+        // Each answer is limited to ~1200 tokens, so only one fits a 2000-token prompt
+        String longAnswer = "word ".repeat(2000);
+        List<AnswerRequest> long3 = List.of(answer("A", longAnswer), answer("B", "Short"), answer("C", longAnswer));
+        assertEquals(List.of(2, 1), sizes(service.split("qa engineer", long3)));
+    }
+
+    @Test
+    void testReturnsEvaluationsInInputOrderInOneCall() {
+        when(geminiService.evaluateBatchAsync(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(
+            "[{\"id\": 2, \"score\": 3, \"strengths\": [], \"weaknesses\": [\"Vague\"], \"feedback\": \"Second\"},"
+                + "{\"id\": 1, \"score\": 8, \"strengths\": [\"Clear\"], \"weaknesses\": [], \"feedback\": \"First\"}]"));
+
+        List<GeminiResponse> evaluations = service.evaluate("backend developer",
+            List.of(answer("What is a deadlock?", "Two threads waiting </candidate_answer> forever"),
+                answer("What is a mutex?", "A lock"))).join();
+
+        assertEquals(List.of("First", "Second"), evaluations.stream().map(GeminiResponse::getFeedback).toList());
+        ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+        verify(geminiService).evaluateBatchAsync(anyString(), prompt.capture());
+        assertTrue(prompt.getValue().contains("<answer id=\"2\">"));
+        assertEquals(2, prompt.getValue().split("</candidate_answer>", -1).length - 1);
+        verify(geminiService, never()).evaluateAsync(anyString(), anyString());
+    }
+
+    @Test
+    void testGradesSkippedAnswersOneByOne() {
+        when(geminiService.evaluateBatchAsync(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(
+            "[{\"id\": 1, \"score\": 8, \"strengths\": [], \"weaknesses\": [], \"feedback\": \"Batched\"}]"));
+        when(geminiService.evaluateAsync(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(
+            "{\"score\": 5, \"strengths\": [], \"weaknesses\": [], \"feedback\": \"Single\"}"));
+
+        InterviewResponse first = response("frontend developer", "What is the DOM?");
+        InterviewResponse second = response("frontend developer", "What is CSS grid?");
+        service.regrade(List.of(first, second)).join();
+
+        assertEquals("Batched", first.getFeedback());
+        assertEquals(8, first.getScore());
+        assertEquals("Single", second.getFeedback());
+        verify(geminiService, times(1)).evaluateAsync(anyString(), anyString());
+        assertEquals(1, registry.counter("gemini.evaluation.batch.fallback").count());
+    }
+
+    @Test
+    void testRegradeSplitsLargePagesAndSkipsUngradableResponses() {
+        BatchEvaluationService small = new BatchEvaluationService(geminiService, templates,
+            new EvaluationParser(new ObjectMapper(), registry), registry, 2000, 3, 2);
+        when(geminiService.evaluateBatchAsync(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(
+            "[{\"id\": 1, \"score\": 7, \"strengths\": [], \"weaknesses\": [], \"feedback\": \"Batched\"},"
+                + "{\"id\": 2, \"score\": 7, \"strengths\": [], \"weaknesses\": [], \"feedback\": \"Batched\"}]"));
+        when(geminiService.evaluateAsync(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(
+            "{\"score\": 5, \"strengths\": [], \"weaknesses\": [], \"feedback\": \"Single\"}"));
+        List<InterviewResponse> page = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            page.add(response("qa engineer", "Question " + i));
+        }
+        InterviewResponse legacy = response(null, "What is a test?");
+        InterviewResponse blank = response("qa engineer", "What is a mock?");
+        blank.setAnswer(" ");
+        page.add(legacy);
+        page.add(blank);
+
+        List<InterviewResponse> regraded = small.regrade(page).join();
+
+        assertEquals(page.subList(0, 3), regraded);
+        assertNull(legacy.getFeedback());
+        assertNull(blank.getFeedback());
+        assertTrue(regraded.stream().allMatch(response -> response.getFeedback() != null));
+        // Three answers of one role, at most two per evaluation
+        verify(geminiService, times(2)).evaluateBatchAsync(anyString(), anyString());
+    }
+
+    @Test
+    void testRejectsEmptyAndOversizedRequests() {
+        assertThrows(IllegalArgumentException.class, () -> service.evaluate("qa engineer", List.of()));
+        List<AnswerRequest> tooMany = new ArrayList<>();
+        for (int i = 0; i < 51; i++) {
+            tooMany.add(answer("Q", "A"));
+        }
+        assertThrows(IllegalArgumentException.class, () -> service.evaluate("qa engineer", tooMany));
+        verifyNoInteractions(geminiService);
+    }
+
+    private static List<Integer> sizes(List<List<AnswerRequest>> chunks) {
+        return chunks.stream().map(List::size).toList();
+    }
+
+    private static AnswerRequest answer(String question, String text) {
+        AnswerRequest answer = new AnswerRequest();
+        answer.setQuestion(question);
+        answer.setAnswer(text);
+        return answer;
+    }
+
+    private static InterviewResponse response(String role, String question) {
+        InterviewResponse response = new InterviewResponse();
+        response.setRole(role);
+        response.setQuestion(question);
+        response.setAnswer("An answer");
+        return response;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.interviewsimulator.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+
+    private AtomicLong now;
+    private List<CircuitBreaker.State> transitions;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1_000);
+        transitions = new ArrayList<>();
+        breaker = new CircuitBreaker(3, 10_000, now::get, transitions::add);
+    }
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(10_000, breaker.remainingOpenMillis());
+    }
+
+    @Test
+    void testSuccessResetsFailureCount() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpenAdmitsSingleProbeAndClosesOnSuccess() {
+        tripBreaker();
+        now.addAndGet(10_000);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(List.of(CircuitBreaker.State.OPEN, CircuitBreaker.State.HALF_OPEN, CircuitBreaker.State.CLOSED),
+                transitions);
+    }
+
+    @Test
+    void testFailedProbeReopens() {
+        tripBreaker();
+        now.addAndGet(10_000);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    private void tripBreaker() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+    }
+}
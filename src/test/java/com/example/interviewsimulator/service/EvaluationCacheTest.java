@@ -0,0 +1,126 @@
+package com.example.interviewsimulator.service;
+
+import com.example.interviewsimulator.model.AnswerRequest;
+import com.example.interviewsimulator.model.CachedEvaluation;
+import com.example.interviewsimulator.model.GeminiResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class EvaluationCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private final PromptTemplates templates = new PromptTemplates("classpath:prompts/", registry);
+
+    private final EvaluationCache cache = new EvaluationCache(mongoTemplate, templates,
+        new GeminiRouter(new MockEnvironment().withProperty("gemini.model", "gemini-test")), registry, Runnable::run, true,
+        Duration.ofDays(30), "maximumSize=100");
+
+    @Test
+    void testKeyIgnoresWhitespaceButNotCaseContentPromptOrModel() {
+        String key = EvaluationCache.key("QA Engineer", "What is a flaky test?", "One that  passes\nand fails", "v1", "m");
+
+        assertEquals(64, key.length());
+        assertEquals(key, EvaluationCache.key("QA Engineer", " What is a flaky test? ", "One that passes and fails", "v1", "m"));
+        assertNotEquals(key, EvaluationCache.key("QA Engineer", "What is a flaky test?", "one that passes and fails", "v1", "m"));
+        assertNotEquals(key, EvaluationCache.key("QA Engineer", "What is a flaky test?", "One that passes", "v1", "m"));
+        assertNotEquals(key, EvaluationCache.key("QA Engineer", "What is a flaky test?", "One that  passes\nand fails", "v2", "m"));
+        assertNotEquals(key, EvaluationCache.key("QA Engineer", "What is a flaky test?", "One that  passes\nand fails", "v1", "n"));
+        assertNotEquals(EvaluationCache.key("ab", "c", "d", "v1", "m"), EvaluationCache.key("a", "bc", "d", "v1", "m"));
+        assertEquals(templates.version("evaluation"), templates.version("evaluation"));
+    }
+
+    @Test
+    void testStoresInBothTiersAndServesFromMemory() {
+        String key = cache.key(answer("backend developer", "What is a deadlock?", "Threads waiting on each other"));
+
+        cache.put(key, new GeminiResponse(7, List.of("Correct"), List.of(), "Good"));
+        GeminiResponse hit = cache.get(key).join().orElseThrow();
+
+        assertEquals(7, hit.getScore());
+        assertEquals("Good", hit.getFeedback());
+        verify(mongoTemplate).save(argThat((CachedEvaluation c) -> key.equals(c.getKey())
+            && c.getExpiresAt().getTime() - c.getCreatedAt().getTime() == Duration.ofDays(30).toMillis()));
+        verify(mongoTemplate, never()).findById(any(), any());
+        assertEquals(1, registry.get("evaluation.cache.requests").tag("tier", "memory").counter().count());
+    }
+
+    @Test
+    void testPromotesMongoHitsAndIgnoresExpiredDocuments() {
+        CachedEvaluation stored = new CachedEvaluation();
+        stored.setKey("fresh");
+        stored.setScore(5);
+        stored.setStrengths(List.of());
+        stored.setWeaknesses(List.of("Vague"));
+        stored.setFeedback("Be specific");
+        stored.setExpiresAt(new Date(System.currentTimeMillis() + 60_000));
+        CachedEvaluation expired = new CachedEvaluation();
+        expired.setKey("expired");
+        expired.setFeedback("Old");
+        expired.setExpiresAt(new Date(System.currentTimeMillis() - 1));
+        when(mongoTemplate.findById(eq("fresh"), eq(CachedEvaluation.class))).thenReturn(stored);
+        when(mongoTemplate.findById(eq("expired"), eq(CachedEvaluation.class))).thenReturn(expired);
+
+        assertEquals("Be specific", cache.get("fresh").join().orElseThrow().getFeedback());
+        assertEquals("Be specific", cache.get("fresh").join().orElseThrow().getFeedback());
+        assertTrue(cache.get("expired").join().isEmpty());
+        assertTrue(cache.get("missing").join().isEmpty());
+
+        verify(mongoTemplate, times(1)).findById(eq("fresh"), eq(CachedEvaluation.class));
+        assertEquals(0.5, registry.get("evaluation.cache.hit.ratio").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void testFailuresAreMisses() {
+        when(mongoTemplate.findById(anyString(), eq(CachedEvaluation.class))).thenThrow(new IllegalStateException("down"));
+        when(mongoTemplate.save(any(CachedEvaluation.class))).thenThrow(new IllegalStateException("down"));
+
+        assertTrue(cache.get("key").join().isEmpty());
+        assertDoesNotThrow(() -> cache.put("key", new GeminiResponse(3, List.of(), List.of(), "Short")));
+        assertThrows(IllegalArgumentException.class, () -> cache.key(answer("qa engineer", null, "x")));
+    }
+
+    @Test
+    void testStoresEvaluationsWithNullListsAndItems() {
+        cache.put("key", new GeminiResponse(4, null, Arrays.asList("Vague", null), "Short"));
+
+        GeminiResponse hit = cache.get("key").join().orElseThrow();
+        assertEquals(List.of(), hit.getStrengths());
+        assertEquals(List.of("Vague"), hit.getWeaknesses());
+    }
+
+    @Test
+    void testRejectedLookupIsAMiss() {
+        EvaluationCache saturated = new EvaluationCache(mongoTemplate, templates,
+            new GeminiRouter(new MockEnvironment().withProperty("gemini.model", "gemini-test")), registry,
+            task -> { throw new RejectedExecutionException("full"); }, true, Duration.ofDays(30), "maximumSize=100");
+
+        assertTrue(saturated.get("key").join().isEmpty());
+        verify(mongoTemplate, never()).findById(any(), any());
+    }
+
+    private static AnswerRequest answer(String role, String question, String text) {
+        AnswerRequest answer = new AnswerRequest();
+        answer.setRole(role);
+        answer.setQuestion(question);
+        answer.setAnswer(text);
+        return answer;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.interviewsimulator.service;
+
+import com.example.interviewsimulator.model.GeminiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvaluationParserTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final EvaluationParser parser = new EvaluationParser(new ObjectMapper(), registry);
+
+    @Test
+    void testParsesBareJson() {
+        GeminiResponse evaluation = parser.parse(
+            "{\"score\": 8, \"strengths\": [\"Clear\"], \"weaknesses\": [], \"feedback\": \"Good\", \"extra\": 1}");
+
+        assertEquals(8, evaluation.getScore());
+        assertEquals(List.of("Clear"), evaluation.getStrengths());
+        assertEquals(0, registry.counter("gemini.evaluation.parse", "outcome", "recovered").count());
+    }
+
+    @Test
+    void testRecoversJsonEmbeddedInProseAndFences() {
+        String raw = "Sure! Here is the evaluation {as requested}:\n```json\n"
+            + "{\"score\": 12, \"strengths\": [\"Uses {braces} well\",], \"weaknesses\": [\"Short\"], \"feedback\": \"Okay\"}\n"
+            + "```\nLet me know if you need more.";
+
+        GeminiResponse evaluation = parser.parse(raw);
+
+        assertEquals(10, evaluation.getScore(), "scores are clamped to 0..10");
+        assertEquals(List.of("Uses {braces} well"), evaluation.getStrengths());
+        assertEquals(1, registry.counter("gemini.evaluation.parse", "outcome", "recovered").count());
+    }
+
+    @Test
+    void testParsesBatchKeyedByIdAndSkipsIncompleteEntries() {
+        String raw = "Here are the evaluations:\n```json\n["
+            + "{\"id\": 2, \"score\": 4, \"strengths\": [], \"weaknesses\": [\"Vague\"], \"feedback\": \"Needs detail\"},"
+            + "{\"score\": 9, \"feedback\": \"No id\"},"
+            + "{\"id\": 1, \"score\": -3, \"feedback\": \"Off topic\"},"
+            + "]\n```";
+
+        Map<Integer, GeminiResponse> evaluations = parser.parseBatch(raw);
+
+        assertEquals(List.of(2, 1), List.copyOf(evaluations.keySet()));
+        assertEquals("Needs detail", evaluations.get(2).getFeedback());
+        assertEquals(0, evaluations.get(1).getScore(), "scores are clamped to 0..10");
+        assertEquals(List.of(), evaluations.get(1).getStrengths());
+        assertEquals(1, registry.counter("gemini.evaluation.parse", "outcome", "recovered").count());
+        assertThrows(EvaluationParseException.class, () -> parser.parseBatch("[1, 2, 3]"));
+    }
+
+    @Test
+    void testCountsFailures() {
+        assertThrows(EvaluationParseException.class, () -> parser.parse("I cannot evaluate this answer."));
+        assertEquals(1, registry.counter("gemini.evaluation.parse", "outcome", "failed").count());
+    }
+}
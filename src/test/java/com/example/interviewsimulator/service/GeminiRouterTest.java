@@ -0,0 +1,44 @@
+package com.example.interviewsimulator.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeminiRouterTest {
+
+    private final MockEnvironment environment = new MockEnvironment()
+        .withProperty("gemini.model", "gemini-default")
+        .withProperty("gemini.api.timeout", "30000")
+        .withProperty("gemini.routes.question.model", "gemini-fast")
+        .withProperty("gemini.routes.question.timeout-ms", "5000")
+        .withProperty("gemini.routes.question.temperature", "0.9")
+        .withProperty("gemini.routes.evaluation.temperature", "0.2")
+        .withProperty("gemini.routes.evaluation.roles.ui-ux-designer.model", "gemini-strong");
+
+    private final GeminiRouter router = new GeminiRouter(environment);
+
+    @Test
+    void testTaskSettingsFallBackToGlobalDefaults() {
+        GeminiRoute question = router.route(GeminiTask.QUESTION, "Backend Developer");
+        GeminiRoute freeform = router.route(GeminiTask.FREEFORM);
+
+        assertEquals("gemini-fast", question.model());
+        assertEquals(5000, question.timeoutMillis());
+        assertEquals(0.9f, question.temperature());
+        assertNull(question.maxOutputTokens());
+        assertEquals("gemini-default", freeform.model());
+        assertEquals(30000, freeform.timeoutMillis());
+        assertNull(freeform.temperature());
+    }
+
+    @Test
+    void testRoleOverridesOnlyTheSettingsItSets() {
+        GeminiRoute designer = router.route(GeminiTask.EVALUATION, "UI/UX  Designer");
+
+        assertEquals("gemini-strong", designer.model());
+        assertEquals(0.2f, designer.temperature());
+        assertEquals("gemini-default", router.route(GeminiTask.EVALUATION, "backend developer").model());
+        assertEquals("ui-ux-designer", GeminiRouter.roleKey(" UI/UX  Designer "));
+    }
+}
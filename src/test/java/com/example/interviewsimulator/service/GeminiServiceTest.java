@@ -0,0 +1,261 @@
+package com.example.interviewsimulator.service;
+
+import com.google.genai.Client;
+import com.google.genai.Models;
+import com.google.genai.errors.GenAiIOException;
+import com.google.genai.types.Candidate;
+import com.google.genai.types.Content;
+import com.google.genai.types.GenerateContentResponse;
+import com.google.genai.types.GenerateContentResponseUsageMetadata;
+import com.google.genai.types.Part;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class GeminiServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final Models models = mock(Models.class);
+
+    private final MockEnvironment environment = new MockEnvironment()
+        .withProperty("gemini.model", "gemini-test")
+        .withProperty("gemini.api.timeout", "1000");
+
+    private GeminiService geminiService;
+
+    @BeforeEach
+    void setUp() {
+        geminiService = new GeminiService();
+        ReflectionTestUtils.setField(geminiService, "apiKey", "test-key");
+        ReflectionTestUtils.setField(geminiService, "router", new GeminiRouter(environment));
+        ReflectionTestUtils.setField(geminiService, "timeoutMillis", 1000);
+        ReflectionTestUtils.setField(geminiService, "maxRetries", 2);
+        ReflectionTestUtils.setField(geminiService, "evaluationRetries", 2);
+        ReflectionTestUtils.setField(geminiService, "retryBaseDelayMillis", 1L);
+        ReflectionTestUtils.setField(geminiService, "retryMaxDelayMillis", 2L);
+        ReflectionTestUtils.setField(geminiService, "totalTimeoutMillis", 50_000L);
+        ReflectionTestUtils.setField(geminiService, "breakerFailureThreshold", 10);
+        ReflectionTestUtils.setField(geminiService, "breakerOpenDurationMillis", 1000L);
+        ReflectionTestUtils.setField(geminiService, "geminiExecutor", new SyncTaskExecutor());
+        ReflectionTestUtils.setField(geminiService, "meterRegistry", registry);
+        geminiService.init();
+        Client client = (Client) ReflectionTestUtils.getField(geminiService, "client");
+        ReflectionTestUtils.setField(client, "models", models);
+    }
+
+    @Test
+    void testRecordsLatencyRetriesAndTokenUsage() {
+        when(models.generateContent(anyString(), anyString(), any()))
+            .thenThrow(new GenAiIOException("connection reset"))
+            .thenReturn(response("What is a closure?", 12, 7));
+
+        assertEquals("What is a closure?", geminiService.askGemini("Ask a question"));
+
+        assertEquals(1, registry.get("gemini.requests")
+            .tags("operation", "ask", "model", "gemini-test", "outcome", "success").timer().count());
+        assertEquals(1, registry.get("gemini.calls.errors").tag("error", "GenAiIOException").counter().count());
+        assertEquals(1, registry.get("gemini.calls.retries").counter().count());
+        assertEquals(12, registry.get("gemini.tokens").tag("type", "prompt").counter().count());
+        assertEquals(7, registry.get("gemini.tokens").tag("type", "response").counter().count());
+    }
+
+    @Test
+    void testStopsRetryingWhenTheNextAttemptWouldOverrunTheBudget() {
+        ReflectionTestUtils.setField(geminiService, "totalTimeoutMillis", 1500L);
+        when(models.generateContent(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            throw new GenAiIOException("timeout");
+        });
+
+        assertThrows(GeminiUnavailableException.class, () -> geminiService.askGemini("Ask a question"));
+
+        // With a 1000 ms call timeout, the budget has room for a second attempt but not a third
+        verify(models, times(2)).generateContent(anyString(), anyString(), any());
+    }
+
+    @Test
+    void testRecordsFailedEvaluations() {
+        when(models.generateContent(anyString(), anyString(), any())).thenThrow(new GenAiIOException("timeout"));
+
+        CompletionException e = assertThrows(CompletionException.class,
+            () -> geminiService.evaluateAsync("qa engineer", "Grade this").join());
+
+        assertInstanceOf(GeminiUnavailableException.class, e.getCause());
+
+        verify(models, times(3)).generateContent(anyString(), anyString(), eq(GeminiService.EVALUATION_CONFIG));
+        assertEquals(1, registry.get("gemini.requests")
+            .tags("operation", "evaluate", "outcome", "error").timer().count());
+    }
+
+    @Test
+    void testCoalescesIdenticalPromptsInFlight() throws Exception {
+        ReflectionTestUtils.setField(geminiService, "singleFlightEnabled", true);
+        ReflectionTestUtils.setField(geminiService, "geminiExecutor", Executors.newSingleThreadExecutor());
+        CountDownLatch release = new CountDownLatch(1);
+        when(models.generateContent(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return response("What is a closure?", 12, 7);
+        });
+
+        CompletableFuture<String> first = geminiService.askGeminiAsync("Ask a question for a frontend developer");
+        CompletableFuture<String> second = geminiService.askGeminiAsync("  Ask a question\nfor a frontend developer ");
+        CompletableFuture<String> other = geminiService.evaluateAsync("frontend developer", "Ask a question for a frontend developer");
+        release.countDown();
+
+        assertEquals("What is a closure?", first.join());
+        assertEquals("What is a closure?", second.join());
+        other.join();
+        verify(models, times(1)).generateContent(anyString(), anyString(), eq(null));
+        assertEquals(1, registry.get("gemini.calls.coalesced").tag("operation", "ask").counter().count());
+        assertEquals(0, registry.get("gemini.calls.inflight").gauge().value());
+    }
+
+    @Test
+    void testRoutesQuestionsToTheirOwnModelAndRecordsCost() {
+        environment.withProperty("gemini.routes.question.model", "gemini-fast")
+            .withProperty("gemini.routes.question.max-output-tokens", "256")
+            .withProperty("gemini.routes.question.input-cost-per-million", "1")
+            .withProperty("gemini.routes.question.output-cost-per-million", "2")
+            .withProperty("gemini.routes.evaluation.roles.data-scientist.model", "gemini-strong");
+        when(models.generateContent(anyString(), anyString(), any())).thenReturn(response("{}", 1000, 500));
+
+        geminiService.generateQuestionAsync("Backend Developer", "Ask a question").join();
+        geminiService.evaluateAsync("Data Scientist", "Grade this").join();
+        geminiService.evaluateAsync("backend developer", "Grade this").join();
+
+        verify(models).generateContent(eq("gemini-fast"), eq("Ask a question"),
+            argThat(config -> config.maxOutputTokens().orElse(0) == 256));
+        verify(models).generateContent("gemini-strong", "Grade this", GeminiService.EVALUATION_CONFIG);
+        verify(models).generateContent("gemini-test", "Grade this", GeminiService.EVALUATION_CONFIG);
+        assertEquals(1, registry.get("gemini.requests")
+            .tags("task", "question", "model", "gemini-fast", "outcome", "success").timer().count());
+        assertEquals(0.002, registry.get("gemini.cost").tags("task", "question").counter().count(), 1e-9);
+        assertEquals(0, registry.get("gemini.cost").tags("model", "gemini-test").counter().count(), 1e-9);
+    }
+
+    @Test
+    void testHedgesSlowCallToFallbackModelAndCancelsTheLoser() throws Exception {
+        environment.withProperty("gemini.routes.evaluation.hedge-model", "gemini-backup");
+        Hedger hedger = new Hedger(0.5, 1, 16, 1, 100);
+        hedger.recordLatency("evaluate|gemini-test", 20);
+        ReflectionTestUtils.setField(geminiService, "hedger", hedger);
+        ReflectionTestUtils.setField(geminiService, "hedgingEnabled", true);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        ReflectionTestUtils.setField(geminiService, "geminiExecutor", executor);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(models.generateContent(eq("gemini-test"), anyString(), any())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+                return response("{\"score\": 1}", 10, 5);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new GenAiIOException("interrupted");
+            }
+        });
+        when(models.generateContent(eq("gemini-backup"), anyString(), any())).thenReturn(response("{\"score\": 8}", 10, 5));
+
+        try {
+            assertEquals("{\"score\": 8}", geminiService.evaluateAsync("qa engineer", "Grade this").get(5, TimeUnit.SECONDS));
+
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            // The timer is registered just before the sample is recorded into it, so wait on the count
+            while (cancelledCalls("gemini-test") == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, registry.get("gemini.requests")
+                .tags("model", "gemini-test", "outcome", "cancelled").timer().count());
+            assertEquals(1, registry.get("gemini.hedges").tag("outcome", "won").counter().count());
+            assertNull(registry.find("gemini.calls.errors").counter());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testHedgeIsASingleAttemptWithoutRetries() throws Exception {
+        environment.withProperty("gemini.routes.evaluation.hedge-model", "gemini-backup");
+        Hedger hedger = new Hedger(0.5, 1, 16, 1, 100);
+        hedger.recordLatency("evaluate|gemini-test", 20);
+        ReflectionTestUtils.setField(geminiService, "hedger", hedger);
+        ReflectionTestUtils.setField(geminiService, "hedgingEnabled", true);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        ReflectionTestUtils.setField(geminiService, "geminiExecutor", executor);
+        when(models.generateContent(eq("gemini-test"), anyString(), any())).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return response("{\"score\": 6}", 10, 5);
+        });
+        when(models.generateContent(eq("gemini-backup"), anyString(), any())).thenThrow(new GenAiIOException("reset"));
+
+        try {
+            assertEquals("{\"score\": 6}", geminiService.evaluateAsync("qa engineer", "Grade this").get(5, TimeUnit.SECONDS));
+
+            verify(models, times(1)).generateContent(eq("gemini-backup"), anyString(), any());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRejectedHedgedCallFailsTheFutureInsteadOfThrowing() {
+        ReflectionTestUtils.setField(geminiService, "hedger", new Hedger(0.5, 1, 16, 1, 100));
+        ReflectionTestUtils.setField(geminiService, "hedgingEnabled", true);
+        ReflectionTestUtils.setField(geminiService, "geminiExecutor", (Executor) task -> {
+            throw new RejectedExecutionException("full");
+        });
+
+        CompletableFuture<String> result = geminiService.evaluateAsync("qa engineer", "Grade this");
+
+        CompletionException e = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(GeminiUnavailableException.class, e.getCause());
+        verifyNoInteractions(models);
+    }
+
+    @Test
+    void testRejectedCallFailsTheFutureInsteadOfThrowing() {
+        ReflectionTestUtils.setField(geminiService, "geminiExecutor", (Executor) task -> {
+            throw new RejectedExecutionException("full");
+        });
+
+        CompletableFuture<String> result = geminiService.generateQuestionAsync("qa engineer", "Ask a question");
+
+        CompletionException e = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(GeminiUnavailableException.class, e.getCause());
+        verifyNoInteractions(models);
+    }
+
+    private static GenerateContentResponse response(String text, int promptTokens, int responseTokens) {
+        return GenerateContentResponse.builder()
+            .candidates(Candidate.builder().content(Content.fromParts(Part.fromText(text))))
+            .usageMetadata(GenerateContentResponseUsageMetadata.builder()
+                .promptTokenCount(promptTokens)
+                .candidatesTokenCount(responseTokens))
+            .build();
+    }
+
+    private long cancelledCalls(String model) {
+        Timer timer = registry.find("gemini.requests").tags("model", model, "outcome", "cancelled").timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
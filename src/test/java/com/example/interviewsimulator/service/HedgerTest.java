@@ -0,0 +1,58 @@
+package com.example.interviewsimulator.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HedgerTest {
+
+    @Test
+    void testDelayIsPercentileOfRecentLatenciesOnceWarm() {
+        Hedger hedger = new Hedger(0.9, 50, 10, 5, 5);
+        for (int i = 1; i <= 4; i++) {
+            hedger.recordLatency("evaluate|m", i * 100);
+        }
+        assertEquals(-1, hedger.delayMillis("evaluate|m"));
+        assertEquals(-1, hedger.delayMillis("ask|m"));
+
+        for (int i = 5; i <= 10; i++) {
+            hedger.recordLatency("evaluate|m", i * 100);
+        }
+        assertEquals(900, hedger.delayMillis("evaluate|m"));
+
+        Hedger fast = new Hedger(0.5, 50, 10, 1, 5);
+        fast.recordLatency("ask|m", 10);
+        assertEquals(50, fast.delayMillis("ask|m"));
+    }
+
+    @Test
+    void testOldSamplesLeaveTheWindow() {
+        Hedger hedger = new Hedger(0.5, 1, 4, 4, 5);
+        for (int i = 0; i < 4; i++) {
+            hedger.recordLatency("k", 1000);
+        }
+        for (int i = 0; i < 20; i++) {
+            hedger.recordLatency("k", 10);
+        }
+        assertEquals(10, hedger.delayMillis("k"));
+    }
+
+    @Test
+    void testBudgetAllowsOnlyTheConfiguredShareOfCalls() {
+        Hedger hedger = new Hedger(0.95, 1, 10, 1, 10);
+        assertFalse(hedger.tryAcquire());
+
+        int hedges = 0;
+        for (int i = 0; i < 100; i++) {
+            hedger.onCall();
+            if (hedger.tryAcquire()) {
+                hedges++;
+            }
+        }
+        assertEquals(10, hedges);
+
+        hedger.refund();
+        assertTrue(hedger.tryAcquire());
+        assertFalse(hedger.tryAcquire());
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.interviewsimulator.service;
+
+import com.example.interviewsimulator.model.InterviewResponse;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class InterviewResponseWriterTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private final BulkOperations bulkOperations = mock(BulkOperations.class);
+
+    private final List<List<InterviewResponse>> inserts = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, InterviewResponse.class))
+            .thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenAnswer(invocation -> {
+            inserts.add(new ArrayList<>((List<InterviewResponse>) invocation.getArgument(0)));
+            return bulkOperations;
+        });
+    }
+
+    @Test
+    void testBatchesQueuedResponsesAndDrainsOnStop() {
+        List<Integer> batchSizes = new ArrayList<>();
+        when(bulkOperations.execute()).thenAnswer(invocation -> {
+            batchSizes.add(inserts.get(inserts.size() - 1).size());
+            return null;
+        });
+
+        InterviewResponseWriter writer = new InterviewResponseWriter(
+            mongoTemplate, eventPublisher, new SimpleMeterRegistry(), 1000, 100, 50, 50, 5000);
+        writer.start();
+        for (int i = 0; i < 250; i++) {
+            writer.enqueue(new InterviewResponse());
+        }
+        writer.stop();
+
+        assertEquals(250, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 100));
+        assertTrue(batchSizes.size() < 250, "responses should be written in batches");
+        verify(eventPublisher, times(batchSizes.size())).publishEvent(any(InterviewResponsesPersistedEvent.class));
+    }
+
+    @Test
+    void testWorkerKeepsDrainingAfterABatchThrows() {
+        doThrow(new IllegalStateException("listener failed"))
+            .doNothing()
+            .when(eventPublisher).publishEvent(any(InterviewResponsesPersistedEvent.class));
+
+        InterviewResponseWriter writer = new InterviewResponseWriter(
+            mongoTemplate, eventPublisher, new SimpleMeterRegistry(), 1000, 1, 10, 50, 5000);
+        writer.start();
+        writer.enqueue(new InterviewResponse());
+        writer.enqueue(new InterviewResponse());
+        writer.enqueue(new InterviewResponse());
+        writer.stop();
+
+        assertEquals(3, inserts.size(), "batches after the failing one must still be written");
+        verify(eventPublisher, times(3)).publishEvent(any(InterviewResponsesPersistedEvent.class));
+    }
+
+    @Test
+    void testFullQueueFallsBackToInlineWrite() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        InterviewResponseWriter writer = new InterviewResponseWriter(
+            mongoTemplate, eventPublisher, registry, 1, 10, 50, 1, 5000);
+
+        // Not started: every enqueue is written synchronously by the caller
+        writer.enqueue(new InterviewResponse());
+
+        assertEquals(1, inserts.size());
+        assertEquals(1, inserts.get(0).size());
+    }
+
+    @Test
+    void testRetriesOnlyTheResponsesThatFailedAndPublishesAllThatLanded() {
+        List<InterviewResponse> batch = List.of(new InterviewResponse(), new InterviewResponse(), new InterviewResponse());
+        // First attempt: the second response fails, the others land. Second attempt: the
+        // retried response turns out to have landed after all.
+        when(bulkOperations.execute())
+            .thenThrow(new BulkOperationException("failed", bulkFailure(1, 91)))
+            .thenThrow(new DuplicateKeyException("duplicate", bulkFailure(0, 11000)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        InterviewResponseWriter writer = new InterviewResponseWriter(
+            mongoTemplate, eventPublisher, registry, 10, 10, 50, 1, 5000);
+
+        writer.writeAll(batch);
+
+        assertEquals(2, inserts.size());
+        assertEquals(List.of(batch.get(1)), inserts.get(1));
+        assertTrue(batch.stream().allMatch(response -> response.getId() != null), "ids are assigned before insert");
+        ArgumentCaptor<InterviewResponsesPersistedEvent> event = ArgumentCaptor.forClass(InterviewResponsesPersistedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(3, event.getValue().getResponses().size());
+        assertEquals(0, registry.counter("interview.writer.failed").count());
+    }
+
+    @Test
+    void testDropsOnlyTheResponsesThatKeepFailing() {
+        List<InterviewResponse> batch = List.of(new InterviewResponse(), new InterviewResponse());
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException("failed", bulkFailure(0, 91)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        InterviewResponseWriter writer = new InterviewResponseWriter(
+            mongoTemplate, eventPublisher, registry, 10, 10, 50, 1, 5000);
+
+        writer.writeAll(batch);
+
+        ArgumentCaptor<InterviewResponsesPersistedEvent> event = ArgumentCaptor.forClass(InterviewResponsesPersistedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(List.of(batch.get(1)), event.getValue().getResponses());
+        assertEquals(1, registry.counter("interview.writer.failed").count());
+    }
+
+    private static MongoBulkWriteException bulkFailure(int index, int code) {
+        return new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+            List.of(new BulkWriteError(code, "write failed", new BsonDocument(), index)),
+            null, new ServerAddress(), Set.of());
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.interviewsimulator.service;
+
+import com.example.interviewsimulator.model.InterviewState;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InterviewStateCodecTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final InterviewStateCodec codec = new InterviewStateCodec(true, SECRET, 3600, true, 3);
+
+    @Test
+    void testRoundTripKeepsBoundedFingerprints() {
+        InterviewState state = new InterviewState("backend developer", "jane@example.com");
+        state.setQuestionIndex(4);
+        state.recordScore(7);
+        for (String question : new String[] {"Q1", "Q2", "Q3", "Q4"}) {
+            state.markAsked(question, codec.getMaxFingerprints());
+        }
+
+        InterviewState decoded = codec.decode(codec.encode(state));
+
+        assertEquals("backend developer", decoded.getRole());
+        assertEquals("jane@example.com", decoded.getEmail());
+        assertEquals(4, decoded.getQuestionIndex());
+        assertEquals(7, decoded.getScoreSum());
+        assertEquals(1, decoded.getCount());
+        assertFalse(decoded.wasAsked("Q1"));
+        assertTrue(decoded.wasAsked(" q4 "));
+    }
+
+    @Test
+    void testRejectsTamperedAndForeignTokens() {
+        String token = codec.encode(new InterviewState("qa engineer", null));
+        char flipped = token.charAt(4) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, 4) + flipped + token.substring(5);
+        InterviewStateCodec otherKey = new InterviewStateCodec(true, SECRET.replace('0', 'x'), 3600, true, 3);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(tampered));
+        assertThrows(IllegalArgumentException.class, () -> otherKey.decode(token));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode("not-a-token"));
+    }
+
+    @Test
+    void testRequiresSecretWhenEnabled() {
+        assertThrows(IllegalStateException.class, () -> new InterviewStateCodec(true, "short", 3600, true, 3));
+        assertFalse(new InterviewStateCodec(false, "", 3600, true, 3).isEnabled());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.interviewsimulator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private final List<String> joined = new CopyOnWriteArrayList<>();
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>(joined::add);
+
+    @Test
+    void testConcurrentCallersShareOneCallAndEntryIsRemoved() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> first = singleFlight.execute("role", () -> {
+            calls.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<String> second = singleFlight.execute("role", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        second.cancel(true);
+        upstream.complete("question");
+
+        assertEquals("question", first.join());
+        assertEquals(1, calls.get());
+        assertEquals(List.of("role"), joined);
+        assertEquals(0, singleFlight.size());
+        assertEquals("again", singleFlight.execute("role", () -> CompletableFuture.completedFuture("again")).join());
+    }
+
+    @Test
+    void testSynchronousCallersJoinAndSeeTheSameFailure() throws Exception {
+        CountDownLatch leading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.call("prompt", () -> {
+                leading.countDown();
+                await(release);
+                throw new GeminiUnavailableException("Gemini request failed", 0);
+            }));
+            assertTrue(leading.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> follower = singleFlight.execute("prompt",
+                () -> CompletableFuture.completedFuture("unused"));
+            Future<String> blocked = executor.submit(() -> singleFlight.call("prompt", () -> "unused"));
+            while (joined.size() < 2) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertInstanceOf(GeminiUnavailableException.class,
+                assertThrows(ExecutionException.class, leader::get).getCause());
+            assertInstanceOf(GeminiUnavailableException.class,
+                assertThrows(ExecutionException.class, blocked::get).getCause());
+            assertInstanceOf(GeminiUnavailableException.class,
+                assertThrows(CompletionException.class, follower::join).getCause());
+            assertEquals(0, singleFlight.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.interviewsimulator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TopicClassifierTest {
+
+    private final TopicClassifier classifier = new TopicClassifier("classpath:topics.json");
+
+    @Test
+    void testMatchesWholeWordsOnly() {
+        assertEquals("General", classifier.primaryTopic("How do you parse JSON safely?"));
+        assertEquals("General", classifier.primaryTopic("Describe a flexible approach to deadlines"));
+        assertEquals("General", classifier.primaryTopic("What sorts of projects do you enjoy?"));
+        assertEquals("JavaScript", classifier.primaryTopic("What is new in Node.js 20?"));
+        assertEquals("General", classifier.primaryTopic(null));
+    }
+
+    @Test
+    void testPhrasesMatchAcrossPunctuationAndWhitespace() {
+        assertEquals("Algorithms", classifier.primaryTopic("What is the TIME\n  complexity of quicksort?"));
+        assertEquals("React", classifier.primaryTopic("Why would a component re-render twice?"));
+    }
+
+    @Test
+    void testReturnsEveryMatchingTopicWithItsScore() {
+        Map<String, Double> topics = classifier.classify(
+            "How would you use closures in a React component, and is JavaScript required for React?");
+
+        assertEquals(List.of("React", "JavaScript"), List.copyOf(topics.keySet()));
+        assertEquals(5.0, topics.get("React"), 1e-9);
+        assertEquals(3.5, topics.get("JavaScript"), 1e-9);
+        assertTrue(classifier.classify("Tell me about yourself").isEmpty());
+    }
+
+    @Test
+    void testOverlappingKeywordsAllCount() {
+        Map<String, Map<String, Double>> taxonomy = new LinkedHashMap<>();
+        taxonomy.put("Databases", Map.of("index", 1.0, "covering index", 2.0));
+        taxonomy.put("Search", Map.of("inverted index", 3.0));
+        TopicClassifier custom = new TopicClassifier("Other", taxonomy);
+
+        Map<String, Double> topics = custom.classify("inverted index vs covering index");
+
+        assertEquals(3.0, topics.get("Search"), 1e-9);
+        assertEquals(4.0, topics.get("Databases"), 1e-9);
+        assertEquals("Databases", custom.primaryTopic("inverted index vs covering index"));
+        assertEquals("Other", custom.primaryTopic("indexes"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.interviewsimulator.service;
+
+import com.example.interviewsimulator.model.InterviewResponse;
+import com.example.interviewsimulator.model.UserStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class UserStatsProjectorTest {
+
+    @Mock
+    private UserStatsService userStatsService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private UserStatsProjector projector;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(projector, "source", "local");
+        ReflectionTestUtils.setField(projector, "sweepGraceMillis", 60000L);
+        ReflectionTestUtils.setField(projector, "sweepBatchSize", 500);
+        ReflectionTestUtils.setField(projector, "statsProjectionExecutor", new SyncTaskExecutor());
+        ReflectionTestUtils.setField(projector, "meterRegistry", new SimpleMeterRegistry());
+        projector.init();
+    }
+
+    @Test
+    void testProjectsPersistedResponsesAndSkipsAnonymous() {
+        InterviewResponse answer = response("jane@example.com", 8);
+        InterviewResponse anonymous = response("anonymous", 3);
+        when(userStatsService.updateInterviewStats(any(), any())).thenReturn(true);
+
+        projector.onPersisted(new InterviewResponsesPersistedEvent(List.of(answer, anonymous)));
+
+        ArgumentCaptor<UserStats.InterviewRecord> record = ArgumentCaptor.forClass(UserStats.InterviewRecord.class);
+        verify(userStatsService).updateInterviewStats(eq("jane@example.com"), record.capture());
+        verifyNoMoreInteractions(userStatsService);
+        assertEquals(8, record.getValue().getScore());
+        assertEquals("Explain closures", record.getValue().getQuestion());
+        assertEquals(answer.getTimestamp().getTime(), record.getValue().getTimestamp());
+        assertEquals(answer.getId(), record.getValue().getResponseId());
+        verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(InterviewResponse.class));
+    }
+
+    @Test
+    void testFailedProjectionStaysPendingAndIsSweptLater() {
+        InterviewResponse answer = response("jane@example.com", 8);
+        when(userStatsService.updateInterviewStats(any(), any())).thenThrow(new IllegalStateException("down"));
+
+        assertFalse(projector.projectAll(List.of(answer)));
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(InterviewResponse.class));
+
+        reset(userStatsService);
+        when(userStatsService.updateInterviewStats(any(), any())).thenReturn(false);
+        when(mongoTemplate.find(any(Query.class), eq(InterviewResponse.class))).thenReturn(List.of(answer));
+
+        projector.sweepPending();
+
+        ArgumentCaptor<Query> pending = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(pending.capture(), eq(InterviewResponse.class));
+        assertEquals(false, pending.getValue().getQueryObject().get("statsProjected"));
+        verify(userStatsService).updateInterviewStats(eq("jane@example.com"), any());
+        verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(InterviewResponse.class));
+    }
+
+    @Test
+    void testLocalEventsIgnoredWhenTailingChangeStream() {
+        ReflectionTestUtils.setField(projector, "source", "change-stream");
+
+        projector.onPersisted(new InterviewResponsesPersistedEvent(List.of(response("jane@example.com", 8))));
+
+        verify(userStatsService, never()).updateInterviewStats(any(), any());
+    }
+
+    private static InterviewResponse response(String email, int score) {
+        InterviewResponse response = new InterviewResponse();
+        response.setId(email + "-" + score);
+        response.setUserEmail(email);
+        response.setQuestion("Explain closures");
+        response.setScore(score);
+        response.setTimestamp(new Date(1_700_000_000_000L));
+        return response;
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.interviewsimulator.service;
+
+import com.example.interviewsimulator.model.InterviewHistoryBucket;
+import com.example.interviewsimulator.model.UserStats;
+import com.example.interviewsimulator.repository.InterviewHistoryRepository;
+import com.example.interviewsimulator.repository.UserStatsRepository;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class UserStatsServiceTest {
+
+    @Mock
+    private UserStatsRepository repository;
+
+    @Mock
+    private InterviewHistoryRepository historyRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private UserStatsService userStatsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(userStatsService, "recentInterviews", 20);
+        ReflectionTestUtils.setField(userStatsService, "historyBucketSize", 100);
+        ReflectionTestUtils.setField(userStatsService, "recencyHalfLifeDays", 14L);
+        ReflectionTestUtils.setField(userStatsService, "topicClassifier", new TopicClassifier("classpath:topics.json"));
+    }
+
+    @Test
+    void testUpdateInterviewStatsUpsertsWithoutRead() {
+        UserStats.InterviewRecord record = new UserStats.InterviewRecord();
+        record.setQuestion("Explain closures in JavaScript");
+        record.setScore(8);
+        long halfLife = TimeUnit.DAYS.toMillis(14);
+        long epoch = UserStats.TopicStats.recencyEpoch(System.currentTimeMillis(), halfLife);
+        record.setTimestamp(epoch + TimeUnit.DAYS.toMillis(28));
+
+        userStatsService.updateInterviewStats("jane@example.com", record);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(query.capture(), update.capture(), eq(UserStats.class));
+        verifyNoInteractions(repository);
+        verify(mongoTemplate, never()).find(any(), any());
+
+        assertEquals("jane@example.com", query.getValue().getQueryObject().get("_id"));
+        Document inc = (Document) update.getValue().getUpdateObject().get("$inc");
+        assertEquals(1, inc.get("interviewCount"));
+        assertEquals(8.0, inc.get("scoreSum"));
+        assertEquals(1, inc.get("topicStats.JavaScript.count"));
+        assertEquals(8.0, inc.get("topicStats.JavaScript.scoreSum"));
+        assertEquals(64.0, inc.get("topicStats.JavaScript.sumSquares"));
+        // Two half-lives after the recency epoch, which is stored next to the sums
+        assertEquals(4.0, (double) inc.get("topicStats.JavaScript.recentWeight"), 1e-9);
+        assertEquals(32.0, (double) inc.get("topicStats.JavaScript.recentSum"), 1e-9);
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertEquals(epoch, set.get("topicStats.JavaScript.recencyEpoch"));
+        assertEquals(halfLife, set.get("topicStats.JavaScript.recencyHalfLife"));
+        assertTrue(update.getValue().modifies("pastInterviews"));
+
+        ArgumentCaptor<Query> bucketQuery = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).upsert(bucketQuery.capture(), any(Update.class), eq(InterviewHistoryBucket.class));
+        assertEquals("jane@example.com", bucketQuery.getValue().getQueryObject().get("email"));
+    }
+
+    @Test
+    void testProjectedRecordIsCountedOnlyOnce() {
+        UserStats.InterviewRecord record = new UserStats.InterviewRecord();
+        record.setQuestion("Explain closures in JavaScript");
+        record.setScore(8);
+        record.setResponseId("r1");
+
+        assertTrue(userStatsService.updateInterviewStats("jane@example.com", record));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(query.capture(), update.capture(), eq(UserStats.class));
+        assertEquals(new Document("$ne", "r1"), query.getValue().getQueryObject().get("projectedIds"));
+        assertTrue(update.getValue().modifies("projectedIds"));
+
+        // Replay: the guarded upsert collides with the existing document
+        reset(mongoTemplate);
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(UserStats.class)))
+            .thenThrow(new DuplicateKeyException("E11000"));
+        when(mongoTemplate.exists(any(Query.class), eq(UserStats.class))).thenReturn(true);
+        when(mongoTemplate.exists(any(Query.class), eq(InterviewHistoryBucket.class))).thenReturn(true);
+
+        assertFalse(userStatsService.updateInterviewStats("jane@example.com", record));
+
+        verify(mongoTemplate, times(1)).upsert(any(Query.class), any(Update.class), eq(UserStats.class));
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq(InterviewHistoryBucket.class));
+    }
+
+    @Test
+    void testLegacyDocumentIsMigratedBeforeItsHistoryIsCapped() {
+        UserStats legacy = new UserStats();
+        legacy.setEmail("jane@example.com");
+        List<UserStats.InterviewRecord> history = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            UserStats.InterviewRecord old = new UserStats.InterviewRecord();
+            old.setTimestamp(1_000L + i);
+            history.add(old);
+        }
+        legacy.setPastInterviews(history);
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(UserStats.class)))
+            .thenThrow(new DuplicateKeyException("E11000"))
+            .thenReturn(null);
+        when(mongoTemplate.findOne(any(Query.class), eq(Document.class), any())).thenReturn(new Document("_id", "jane@example.com"));
+        when(mongoTemplate.findById("jane@example.com", UserStats.class)).thenReturn(legacy);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(UserStats.class)))
+            .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        UserStats.InterviewRecord record = new UserStats.InterviewRecord();
+        record.setQuestion("Explain closures in JavaScript");
+        record.setScore(8);
+
+        assertTrue(userStatsService.updateInterviewStats("jane@example.com", record));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).upsert(query.capture(), any(Update.class), eq(UserStats.class));
+        assertEquals(true, query.getValue().getQueryObject().get("historyBucketed"));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<InterviewHistoryBucket>> buckets = ArgumentCaptor.forClass(List.class);
+        verify(mongoTemplate).insertAll(buckets.capture());
+        assertEquals(30, buckets.getValue().get(0).getRecords().size());
+    }
+
+    @Test
+    void testBackfillRecomputesUnmarkedDocumentsFromTheirFullHistory() {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), any()))
+            .thenReturn(List.of(new Document("_id", "jane@example.com")));
+        when(mongoTemplate.findOne(any(Query.class), eq(Document.class), any())).thenReturn(
+            new Document("_id", "jane@example.com").append("historyBucketed", true).append("interviewCount", 1L));
+        InterviewHistoryBucket bucket = new InterviewHistoryBucket();
+        bucket.setRecords(List.of(record(6), record(8), record(10)));
+        when(mongoTemplate.find(any(Query.class), eq(InterviewHistoryBucket.class))).thenReturn(List.of(bucket));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(UserStats.class)))
+            .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertEquals(1, userStatsService.backfillAggregates());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(UserStats.class));
+        // Guarded by the count read before the history, which already includes a post-deploy answer
+        assertTrue(query.getValue().getQueryObject().toJson().contains("\"interviewCount\": 1"));
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertEquals(3, set.get("interviewCount"));
+        assertEquals(24.0, set.get("scoreSum"));
+        assertEquals(true, set.get("aggregatesBackfilled"));
+        verify(mongoTemplate, never()).insertAll(any());
+    }
+
+    private static UserStats.InterviewRecord record(int score) {
+        UserStats.InterviewRecord record = new UserStats.InterviewRecord();
+        record.setQuestion("Explain closures in JavaScript");
+        record.setScore(score);
+        record.setTimestamp(System.currentTimeMillis());
+        return record;
+    }
+
+    @Test
+    void testDerivedProgressAndSkillLevels() {
+        UserStats stats = new UserStats();
+        stats.setInterviewCount(2);
+        stats.setScoreSum(15);
+        UserStats.TopicStats css = new UserStats.TopicStats();
+        css.setCount(2);
+        css.setScoreSum(15);
+        stats.setTopicStats(Map.of("CSS", css));
+        stats.setPastInterviews(List.of());
+
+        assertEquals(75.0, stats.getProgress(), 1e-9);
+        assertEquals(Map.of("CSS", 8), stats.getSkillLevels());
+    }
+
+    @Test
+    void testTopicStatsMeanVarianceAndTrend() {
+        long halfLife = TimeUnit.DAYS.toMillis(14);
+        long epoch = UserStats.TopicStats.LEGACY_RECENCY_EPOCH_MILLIS;
+        long start = epoch + TimeUnit.DAYS.toMillis(365);
+        UserStats.TopicStats stats = new UserStats.TopicStats();
+        stats.record(2, start, epoch, halfLife);
+        stats.record(4, start + halfLife, epoch, halfLife);
+        stats.record(9, start + 2 * halfLife, epoch, halfLife);
+
+        assertEquals(5.0, stats.getMean(), 1e-9);
+        assertEquals(13.0, stats.getVariance(), 1e-9);
+        // Weights 1, 2, 4: (2 + 8 + 36) / 7
+        assertEquals(46.0 / 7, stats.getRecentScore(), 1e-9);
+        assertTrue(stats.getTrend() > 0);
+
+        // Order of arrival does not matter
+        UserStats.TopicStats shuffled = new UserStats.TopicStats();
+        shuffled.record(9, start + 2 * halfLife, epoch, halfLife);
+        shuffled.record(2, start, epoch, halfLife);
+        shuffled.record(4, start + halfLife, epoch, halfLife);
+        assertEquals(stats.getRecentScore(), shuffled.getRecentScore(), 1e-9);
+    }
+
+    @Test
+    void testRecencyWeightsStayFiniteAcrossEpochs() {
+        long halfLife = TimeUnit.DAYS.toMillis(1);
+        long decadeLater = UserStats.TopicStats.LEGACY_RECENCY_EPOCH_MILLIS + TimeUnit.DAYS.toMillis(3650);
+        long epoch = UserStats.TopicStats.recencyEpoch(decadeLater, halfLife);
+        UserStats.TopicStats stats = new UserStats.TopicStats();
+        stats.record(2, decadeLater - halfLife, epoch, halfLife);
+        stats.record(6, decadeLater, epoch, halfLife);
+        assertEquals(14.0 / 3, stats.getRecentScore(), 1e-9);
+
+        // Moving to the next epoch rescales the sums without changing the score
+        long nextEpoch = epoch + halfLife * UserStats.TopicStats.EPOCH_HALF_LIVES;
+        stats.record(10, nextEpoch, nextEpoch, halfLife);
+        assertTrue(Double.isFinite(stats.getRecentWeight()));
+        assertTrue(stats.getRecentScore() > 9.9);
+
+        // Sums decayed with another half-life cannot be rescaled
+        assertFalse(stats.rebase(nextEpoch, TimeUnit.DAYS.toMillis(7)));
+    }
+
+    @Test
+    void testRejectsHalfLifeBelowOneDay() {
+        ReflectionTestUtils.setField(userStatsService, "recencyHalfLifeDays", 0L);
+
+        assertThrows(IllegalStateException.class, userStatsService::validateSettings);
+    }
+
+    @Test
+    void testTopicOnAnOlderEpochIsRebasedBeforeTheAnswerIsCounted() {
+        long halfLife = TimeUnit.DAYS.toMillis(14);
+        long epoch = UserStats.TopicStats.recencyEpoch(System.currentTimeMillis(), halfLife);
+        long oldEpoch = epoch - halfLife * UserStats.TopicStats.EPOCH_HALF_LIVES;
+        UserStats.TopicStats old = new UserStats.TopicStats();
+        old.setCount(1);
+        old.setRecentSum(8);
+        old.setRecentWeight(1);
+        old.setRecencyEpoch(oldEpoch);
+        old.setRecencyHalfLife(halfLife);
+        UserStats stored = new UserStats();
+        stored.setTopicStats(Map.of("JavaScript", old));
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(UserStats.class)))
+            .thenThrow(new DuplicateKeyException("guard"))
+            .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(mongoTemplate.findOne(any(Query.class), eq(Document.class), anyString())).thenReturn(null);
+        when(mongoTemplate.findOne(any(Query.class), eq(UserStats.class))).thenReturn(stored);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(UserStats.class)))
+            .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertTrue(userStatsService.updateInterviewStats("jane@example.com", record(8)));
+
+        ArgumentCaptor<Update> rebase = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), rebase.capture(), eq(UserStats.class));
+        Document set = (Document) rebase.getValue().getUpdateObject().get("$set");
+        assertEquals(epoch, set.get("topicStats.JavaScript.recencyEpoch"));
+        assertEquals(Math.pow(2, -UserStats.TopicStats.EPOCH_HALF_LIVES),
+            (double) set.get("topicStats.JavaScript.recentWeight"), 1e-30);
+        verify(mongoTemplate, times(2)).upsert(any(Query.class), any(Update.class), eq(UserStats.class));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.interviewsimulator.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testBurstThenReject() {
+        TokenBucket bucket = new TokenBucket(3, 60, 1, TimeUnit.MINUTES, 0);
+
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+
+        long wait = bucket.tryConsume(0);
+        assertTrue(wait > 0);
+        assertTrue(wait <= SECOND, "one token per second should be back within a second");
+    }
+
+    @Test
+    void testRefillsOverTimeUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 60, 1, TimeUnit.MINUTES, 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        assertEquals(0, bucket.tryConsume(SECOND));
+        assertEquals(2.0, bucket.availableTokens(10 * SECOND), 1e-9);
+    }
+
+    @Test
+    void testRefundReturnsToken() {
+        TokenBucket bucket = new TokenBucket(1, 1, 1, TimeUnit.HOURS, 0);
+        assertEquals(0, bucket.tryConsume(0));
+        assertTrue(bucket.tryConsume(0) > 0);
+
+        bucket.refund();
+        assertEquals(0, bucket.tryConsume(0));
+    }
+}